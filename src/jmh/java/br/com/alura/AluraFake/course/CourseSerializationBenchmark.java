@@ -0,0 +1,85 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.util.JsonBytes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+// mvn -Pbench -Djmh.args="CourseSerializationBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private List<CourseListItemDTO> catalogPage;
+    private CourseDetailDTO course;
+    private JsonBytes catalogPageBytes;
+    private JsonBytes courseBytes;
+    private OutputStream response;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        catalogPage = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> new CourseListItemDTO(id, "Course " + id, "Aprenda tudo sobre o curso " + id, Status.PUBLISHED, 0))
+                .toList();
+        course = new CourseDetailDTO(42L, "Java", "Aprenda Java com Alura", Status.PUBLISHED, "Paulo", "paulo@alura.com.br", LocalDateTime.now())
+                .withTasks(IntStream.rangeClosed(1, 30)
+                        .boxed()
+                        .flatMap(i -> IntStream.rangeClosed(1, 4)
+                                .mapToObj(option -> new CourseTaskRowDTO((long) i, Type.MULTIPLE_CHOICE, "Qual a resposta da tarefa " + i + "?", i * 1024L, "Alternativa " + option, option <= 2)))
+                        .toList());
+        catalogPageBytes = JsonBytes.of(objectMapper, catalogPage);
+        courseBytes = JsonBytes.of(objectMapper, course);
+        response = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                blackhole.consume(bytes);
+            }
+        };
+    }
+
+    @Benchmark
+    public void catalogPage_jacksonPerRequest() throws IOException {
+        objectMapper.writeValue(response, catalogPage);
+    }
+
+    @Benchmark
+    public void catalogPage_preSerialized() throws IOException {
+        response.write(catalogPageBytes.json());
+    }
+
+    @Benchmark
+    public void courseDetail_jacksonPerRequest() throws IOException {
+        objectMapper.writeValue(response, course);
+    }
+
+    @Benchmark
+    public void courseDetail_preSerialized() throws IOException {
+        response.write(courseBytes.json());
+    }
+
+    @Benchmark
+    public void courseDetail_preGzipped() throws IOException {
+        response.write(courseBytes.gzipped());
+    }
+}
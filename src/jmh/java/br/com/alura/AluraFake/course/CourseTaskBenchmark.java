@@ -0,0 +1,110 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.*;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbench -Djmh.args="CourseTaskBenchmark -p taskCount=10,1000 -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseTaskBenchmark {
+
+    private static final User INSTRUCTOR = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
+    private static final VarHandle TASKS;
+    private static final MethodHandle IS_ORDER_VALID_TO_INSERT;
+    private static final MethodHandle INSERT_NEW_TASK_SHIFTING_SUBSEQUENT_TASKS;
+
+    static {
+        try {
+            MethodHandles.Lookup course = MethodHandles.privateLookupIn(Course.class, MethodHandles.lookup());
+            TASKS = course.findVarHandle(Course.class, "tasks", List.class);
+            IS_ORDER_VALID_TO_INSERT = course.findVirtual(Course.class, "isOrderValidToInsert", MethodType.methodType(boolean.class, Integer.class));
+            INSERT_NEW_TASK_SHIFTING_SUBSEQUENT_TASKS = course.findVirtual(Course.class, "insertNewTaskShiftingSubsequentTasks", MethodType.methodType(void.class, Task.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"10", "100", "1000", "10000"})
+    private int taskCount;
+
+    private Course course;
+
+    @Setup
+    public void setUp() {
+        course = courseWithTasks(taskCount, true);
+    }
+
+    @State(Scope.Thread)
+    public static class FreshCourse {
+
+        private Course course;
+        private Task task;
+        private int taskCount;
+
+        @Setup(Level.Invocation)
+        public void setUp(CourseTaskBenchmark benchmark) {
+            taskCount = benchmark.taskCount;
+            course = courseWithTasks(taskCount, false);
+            task = new OpenTextTask("Nova tarefa", 1, course);
+        }
+    }
+
+    @Benchmark
+    public void addTask_append(FreshCourse fresh) {
+        fresh.course.addOpenTextTask("Nova tarefa", fresh.taskCount + 1);
+    }
+
+    @Benchmark
+    public void addTask_prepend(FreshCourse fresh) {
+        fresh.course.addOpenTextTask("Nova tarefa", 1);
+    }
+
+    @Benchmark
+    public void insertNewTaskShiftingSubsequentTasks_prepend(FreshCourse fresh) throws Throwable {
+        INSERT_NEW_TASK_SHIFTING_SUBSEQUENT_TASKS.invokeExact(fresh.course, fresh.task);
+    }
+
+    @Benchmark
+    public boolean isOrderValidToInsert_middle() throws Throwable {
+        return (boolean) IS_ORDER_VALID_TO_INSERT.invokeExact(course, (Integer) (taskCount / 2));
+    }
+
+    @Benchmark
+    public boolean hasAllTypeOfTasks() {
+        return course.hasAllTypeOfTasks();
+    }
+
+    @Benchmark
+    public boolean hasAllTasksInValidOrder() {
+        return course.hasAllTasksInValidOrder();
+    }
+
+    private static Course courseWithTasks(int taskCount, boolean allTypes) {
+        Course course = new Course("Java", "Curso de Java", INSTRUCTOR);
+        List<Task> tasks = new ArrayList<>(taskCount + 1);
+        for (int order = 1; order <= taskCount; order++) {
+            String statement = "Tarefa " + order;
+            tasks.add(switch (allTypes ? order % 3 : 0) {
+                case 1 -> new SingleChoiceTask(statement, order, List.of(new Option("Certa", true), new Option("Errada", false)), course);
+                case 2 -> new MultipleChoiceTask(statement, order, List.of(new Option("Certa", true), new Option("Também certa", true), new Option("Errada", false)), course);
+                default -> new OpenTextTask(statement, order, course);
+            });
+        }
+        TASKS.set(course, tasks);
+        return course;
+    }
+}
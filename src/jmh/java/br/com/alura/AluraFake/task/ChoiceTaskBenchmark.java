@@ -0,0 +1,99 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mvn -Pbench -Djmh.args="ChoiceTaskBenchmark -p optionCount=3,100 -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChoiceTaskBenchmark {
+
+    private static final MethodHandle HAS_UNIQUE_OPTIONS;
+    private static final MethodHandle IS_ALL_OPTIONS_DIFFERENT_FROM_STATEMENT;
+    private static final MethodHandle HAS_AT_LEAST_TWO_CORRECT_OPTIONS;
+    private static final MethodHandle HAS_AT_LEAST_ONE_INCORRECT_OPTION;
+    private static final MethodHandle HAS_ONLY_ONE_CORRECT_ANSWER;
+
+    static {
+        try {
+            MethodType optionsCheck = MethodType.methodType(boolean.class, List.class);
+            MethodHandles.Lookup choiceTask = MethodHandles.privateLookupIn(ChoiceTask.class, MethodHandles.lookup());
+            MethodHandles.Lookup multipleChoiceTask = MethodHandles.privateLookupIn(MultipleChoiceTask.class, MethodHandles.lookup());
+            MethodHandles.Lookup singleChoiceTask = MethodHandles.privateLookupIn(SingleChoiceTask.class, MethodHandles.lookup());
+            HAS_UNIQUE_OPTIONS = choiceTask.findVirtual(ChoiceTask.class, "hasUniqueOptions", optionsCheck);
+            IS_ALL_OPTIONS_DIFFERENT_FROM_STATEMENT = choiceTask.findVirtual(ChoiceTask.class, "isAllOptionsDifferentFromStatement", optionsCheck);
+            HAS_AT_LEAST_TWO_CORRECT_OPTIONS = multipleChoiceTask.findVirtual(MultipleChoiceTask.class, "hasAtLeastTwoCorrectOptions", optionsCheck);
+            HAS_AT_LEAST_ONE_INCORRECT_OPTION = multipleChoiceTask.findVirtual(MultipleChoiceTask.class, "hasAtLeastOneIncorrectOption", optionsCheck);
+            HAS_ONLY_ONE_CORRECT_ANSWER = singleChoiceTask.findVirtual(SingleChoiceTask.class, "hasOnlyOneCorrectAnswer", optionsCheck);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"3", "5", "20", "100"})
+    private int optionCount;
+
+    private Course course;
+    private MultipleChoiceTask multipleChoiceTask;
+    private SingleChoiceTask singleChoiceTask;
+    private List<Option> multipleChoiceOptions;
+    private List<Option> singleChoiceOptions;
+
+    @Setup
+    public void setUp() {
+        course = new Course("Java", "Curso de Java", new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        multipleChoiceOptions = options(2);
+        singleChoiceOptions = options(1);
+        multipleChoiceTask = new MultipleChoiceTask("Quais alternativas estão certas?", 1, options(2), course);
+        singleChoiceTask = new SingleChoiceTask("Qual alternativa está certa?", 1, options(1), course);
+    }
+
+    @Benchmark
+    public boolean hasUniqueOptions() throws Throwable {
+        return (boolean) HAS_UNIQUE_OPTIONS.invokeExact((ChoiceTask) multipleChoiceTask, multipleChoiceOptions);
+    }
+
+    @Benchmark
+    public boolean isAllOptionsDifferentFromStatement() throws Throwable {
+        return (boolean) IS_ALL_OPTIONS_DIFFERENT_FROM_STATEMENT.invokeExact((ChoiceTask) multipleChoiceTask, multipleChoiceOptions);
+    }
+
+    @Benchmark
+    public boolean hasAtLeastTwoCorrectOptions() throws Throwable {
+        return (boolean) HAS_AT_LEAST_TWO_CORRECT_OPTIONS.invokeExact(multipleChoiceTask, multipleChoiceOptions);
+    }
+
+    @Benchmark
+    public boolean hasAtLeastOneIncorrectOption() throws Throwable {
+        return (boolean) HAS_AT_LEAST_ONE_INCORRECT_OPTION.invokeExact(multipleChoiceTask, multipleChoiceOptions);
+    }
+
+    @Benchmark
+    public boolean hasOnlyOneCorrectAnswer() throws Throwable {
+        return (boolean) HAS_ONLY_ONE_CORRECT_ANSWER.invokeExact(singleChoiceTask, singleChoiceOptions);
+    }
+
+    @Benchmark
+    public MultipleChoiceTask newMultipleChoiceTask() {
+        return new MultipleChoiceTask("Quais alternativas estão certas?", 1, options(2), course);
+    }
+
+    private List<Option> options(int correctCount) {
+        return IntStream.rangeClosed(1, optionCount)
+                .mapToObj(i -> new Option("Alternativa " + i, i <= correctCount))
+                .toList();
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.alura.AluraFake.course;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchPublishDTO(
+        @NotEmpty
+        @Size(max = 1000, message = "A batch must have at most 1000 courses.")
+        List<@NotNull Long> courseIds
+) {
+}
@@ -27,9 +27,13 @@ public class Course {
     @Enumerated(EnumType.STRING)
     private Status status;
     private LocalDateTime publishedAt;
+    private LocalDateTime updatedAt = createdAt;
+
+    @OneToOne(mappedBy = "course", cascade = CascadeType.ALL, fetch = FetchType.LAZY, optional = false)
+    private CourseSummary summary;
 
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
-    @OrderBy("task_order ASC")
+    @OrderBy("rank ASC")
     private List<Task> tasks;
 
     @Deprecated
@@ -41,6 +45,7 @@ public class Course {
         this.instructor = instructor;
         this.description = description;
         this.status = Status.BUILDING;
+        this.summary = new CourseSummary(this);
         tasks = new ArrayList<>();
     }
 
@@ -64,27 +69,56 @@ public class Course {
     private void addTask(Task task) {
         Assert.isTrue(isOrderValidToInsert(task.getOrder()), "The order has to be in an insertable position.");
         insertNewTaskShiftingSubsequentTasks(task);
+        summary.recordTask(task.getType(), tasks.getLast().getRank(), (int) tasks.stream().map(Task::getRank).distinct().count());
+        this.updatedAt = now();
     }
 
     private boolean isOrderValidToInsert(Integer order) {
-        return tasks.isEmpty()
+        List<Task> orderedTasks = orderedTasks();
+        return orderedTasks.isEmpty()
                 ? order.equals(1)
-                : tasks.stream().map(Task::getOrder).anyMatch(o -> o.equals(order))
-                    || tasks.getLast().getOrder().equals(order-1);
+                : orderedTasks.stream().map(Task::getOrder).anyMatch(o -> o.equals(order))
+                    || orderedTasks.getLast().getOrder().equals(order-1);
     }
 
     private void insertNewTaskShiftingSubsequentTasks(Task task) {
-        Collections.sort(tasks);
+        List<Task> orderedTasks = orderedTasks();
         int insertPosition = task.getOrder() - 1;
-        tasks.add(insertPosition, task);
-        for (int i = insertPosition + 1; i < tasks.size(); i++) {
-            tasks.get(i).incrementOrder();
+        long rankBefore = insertPosition > 0 ? orderedTasks.get(insertPosition - 1).getRank() : 0L;
+        Long rankAfter = insertPosition < orderedTasks.size() ? orderedTasks.get(insertPosition).getRank() : null;
+        orderedTasks.add(insertPosition, task);
+        TaskRank.between(rankBefore, rankAfter).ifPresentOrElse(task::rankAt, this::renormalizeRanks);
+        for (int i = insertPosition + 1; i < orderedTasks.size(); i++) {
+            orderedTasks.get(i).incrementOrder();
+        }
+    }
+
+    private void renormalizeRanks() {
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).rankAt(TaskRank.of(i + 1));
+        }
+    }
+
+    private List<Task> orderedTasks() {
+        Collections.sort(tasks);
+        if (tasks.stream().anyMatch(task -> task.getOrder() == null)) {
+            int order = 0;
+            Long previousRank = null;
+            for (Task task : tasks) {
+                if (!task.getRank().equals(previousRank)) {
+                    order++;
+                }
+                task.placeAt(order);
+                previousRank = task.getRank();
+            }
         }
+        return tasks;
     }
 
     public void publish() {
         this.status = PUBLISHED;
         this.publishedAt = now();
+        this.updatedAt = publishedAt;
     }
 
     public boolean isPublished() {
@@ -97,7 +131,7 @@ public class Course {
     }
 
     public boolean hasAllTasksInValidOrder() {
-        List<Integer> sortedOrders = tasks.stream().map(Task::getOrder).sorted().toList();
+        List<Integer> sortedOrders = orderedTasks().stream().map(Task::getOrder).sorted().toList();
         for (int i = 0; i < sortedOrders.size(); i++) {
             if (sortedOrders.get(i) != i + 1) {
                 return false;
@@ -134,7 +168,15 @@ public class Course {
         return publishedAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public CourseSummary getSummary() {
+        return summary;
+    }
+
     public List<Task> getTasks() {
-        return Collections.unmodifiableList(tasks);
+        return Collections.unmodifiableList(orderedTasks());
     }
 }
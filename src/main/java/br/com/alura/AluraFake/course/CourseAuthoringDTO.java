@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseAuthoringDTO(Long id, Long instructorId, String title, Status status) {
+}
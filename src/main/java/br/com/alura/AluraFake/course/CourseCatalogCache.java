@@ -0,0 +1,61 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.util.JsonBytes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class CourseCatalogCache implements MeterBinder {
+
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<PageKey, CatalogPage> pages;
+
+    public CourseCatalogCache(CourseRepository courseRepository, ObjectMapper objectMapper,
+                              @Value("${alurafake.course-catalog-cache.max-bytes:16777216}") long maxBytes,
+                              @Value("${alurafake.course-catalog-cache.ttl:30s}") Duration ttl) {
+        this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((PageKey key, CatalogPage page) -> page.json().size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public CatalogPage get(Long after, int size, long version) {
+        return pages.get(new PageKey(after, size, version), this::load);
+    }
+
+    public Cache<PageKey, CatalogPage> pages() {
+        return pages;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "courseCatalog");
+    }
+
+    private CatalogPage load(PageKey key) {
+        List<CourseListItemDTO> courses = courseRepository.findListItemsAfter(key.after(), Limit.of(key.size()));
+        Long nextAfter = courses.size() < key.size() ? null : courses.getLast().getId();
+        return new CatalogPage(JsonBytes.of(objectMapper, courses), nextAfter);
+    }
+
+    public record PageKey(Long after, int size, long version) {
+    }
+
+    public record CatalogPage(JsonBytes json, Long nextAfter) {
+    }
+}
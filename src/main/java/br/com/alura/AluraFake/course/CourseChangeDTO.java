@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.course;
+
+import java.time.LocalDateTime;
+
+public record CourseChangeDTO(Long id, String title, String description, Status status, LocalDateTime publishedAt, LocalDateTime updatedAt) {
+}
@@ -2,32 +2,88 @@ package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.user.User;
 import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.util.CollectionVersions;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
+import br.com.alura.AluraFake.util.JsonStreaming;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static br.com.alura.AluraFake.util.VersionedCollection.COURSES;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.LINK;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @RestController
+@Timed(value = "alurafake.controller", histogram = true)
 public class CourseController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int MAX_AUTOCOMPLETE_SIZE = 50;
+    private static final long MAX_FILTER_OFFSET = 100_000;
+    private static final String BATCH_PUBLISH_CONFLICT_MESSAGE = "Some courses changed while the batch was being published; nothing was published.";
+    private static final String COURSE_NOT_FOUND_MESSAGE = "Course doesn't exist";
+
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PublishedCourseCache publishedCourseCache;
+    private final CourseCatalogCache courseCatalogCache;
+    private final CourseSearchIndex courseSearchIndex;
+    private final CourseTitleAutocomplete courseTitleAutocomplete;
+    private final CollectionVersions collectionVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CoursePublishMetrics publishMetrics;
+    private final Duration changesSettleTime;
 
     @Autowired
-    public CourseController(CourseRepository courseRepository, UserRepository userRepository){
+    public CourseController(CourseRepository courseRepository, UserRepository userRepository, ObjectMapper objectMapper,
+                            PublishedCourseCache publishedCourseCache, CourseCatalogCache courseCatalogCache, CourseSearchIndex courseSearchIndex,
+                            CourseTitleAutocomplete courseTitleAutocomplete,
+                            CollectionVersions collectionVersions, ApplicationEventPublisher eventPublisher,
+                            CoursePublishMetrics publishMetrics,
+                            @Value("${alurafake.course-changes.settle-time:5s}") Duration changesSettleTime){
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.publishedCourseCache = publishedCourseCache;
+        this.courseCatalogCache = courseCatalogCache;
+        this.courseSearchIndex = courseSearchIndex;
+        this.courseTitleAutocomplete = courseTitleAutocomplete;
+        this.collectionVersions = collectionVersions;
+        this.eventPublisher = eventPublisher;
+        this.publishMetrics = publishMetrics;
+        this.changesSettleTime = changesSettleTime;
     }
 
     @Transactional
@@ -46,40 +102,166 @@ public class CourseController {
         Course course = new Course(newCourse.getTitle(), newCourse.getDescription(), possibleAuthor.get());
 
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseCreatedEvent(course.getId(), userId));
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @GetMapping("/course/all")
-    public ResponseEntity<List<CourseListItemDTO>> createCourse() {
-        List<CourseListItemDTO> courses = courseRepository.findAll().stream()
-                .map(CourseListItemDTO::new)
-                .toList();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<byte[]> listAllCourses(@RequestParam(name = "after", defaultValue = "0") Long after,
+                                                 @RequestParam(name = "size", defaultValue = "100") Integer size,
+                                                 @RequestHeader(name = ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 WebRequest request) {
+        CollectionVersions.Version version = collectionVersions.current(COURSES);
+        if (request.checkNotModified(version.eTag(acceptEncoding), version.lastModified())) {
+            return null;
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        CourseCatalogCache.CatalogPage page = courseCatalogCache.get(after, pageSize, version.counter());
+
+        if (page.nextAfter() == null) {
+            return page.json().toResponse(acceptEncoding);
+        }
+        String next = "</course/all?after=%d&size=%d>; rel=\"next\"".formatted(page.nextAfter(), pageSize);
+        return page.json().toResponse(ResponseEntity.ok().header(LINK, next), acceptEncoding);
+    }
+
+    @GetMapping("/course/filter")
+    public ResponseEntity<List<CourseListItemDTO>> filterCourses(CourseFilter filter,
+                                                                 @RequestParam(name = "page", defaultValue = "0") Integer page,
+                                                                 @RequestParam(name = "size", defaultValue = "100") Integer size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        long offset = (long) pageNumber * pageSize;
+        if (offset > MAX_FILTER_OFFSET) {
+            throw new IllegalArgumentException("Page is too deep; narrow the filter or use /course/all.");
+        }
+        CourseSort sort = filter.sort() == null ? CourseSort.ID : filter.sort();
+        List<CourseListItemDTO> courses = courseRepository.findListItems(CourseSpecifications.matching(filter), sort.toSort(),
+                (int) offset, pageSize);
+
+        if (courses.size() < pageSize) {
+            return ResponseEntity.ok(courses);
+        }
+        UriComponents next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", pageNumber + 1)
+                .replaceQueryParam("size", pageSize)
+                .build();
+        return ResponseEntity.ok().header(LINK, "<%s?%s>; rel=\"next\"".formatted(next.getPath(), next.getQuery())).body(courses);
+    }
+
+    @GetMapping("/course/search")
+    public List<CourseSearchResultDTO> searchCourses(@RequestParam("q") String query,
+                                                     @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        return courseSearchIndex.search(query, Math.min(Math.max(size, 1), MAX_SEARCH_SIZE));
+    }
+
+    @GetMapping("/course/autocomplete")
+    public List<CourseTitleDTO> autocompleteCourses(@RequestParam("prefix") String prefix,
+                                                    @RequestParam(name = "status", required = false) Status status,
+                                                    @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return courseTitleAutocomplete.complete(prefix, status, Math.min(Math.max(size, 1), MAX_AUTOCOMPLETE_SIZE));
+    }
+
+    @GetMapping("/course/changes")
+    public ResponseEntity<List<CourseChangeDTO>> listCourseChanges(@RequestParam(name = "since", defaultValue = "1970-01-01T00:00:00") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                                   @RequestParam(name = "after", defaultValue = "0") Long after,
+                                                                   @RequestParam(name = "size", defaultValue = "100") Integer size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        LocalDateTime until = LocalDateTime.now().minus(changesSettleTime);
+        List<CourseChangeDTO> changes = courseRepository.findChangesAfter(since, after, until, Limit.of(pageSize));
+
+        if (changes.isEmpty()) {
+            return ResponseEntity.ok(changes);
+        }
+        CourseChangeDTO last = changes.getLast();
+        String next = "</course/changes?since=%s&after=%d&size=%d>; rel=\"next\"".formatted(last.updatedAt(), last.id(), pageSize);
+        return ResponseEntity.ok().header(LINK, next).body(changes);
+    }
+
+    @GetMapping("/course/{id}")
+    public ResponseEntity<byte[]> getCourse(@PathVariable("id") Long id,
+                                            @RequestHeader(name = ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CourseSnapshot snapshot = publishedCourseCache.get(id)
+                .orElseThrow(() -> new EntityNotFoundException(COURSE_NOT_FOUND_MESSAGE));
+        return snapshot.json().toResponse(acceptEncoding);
+    }
+
+    @GetMapping(value = "/course/all/stream", produces = APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void streamAllCourses(HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_JSON_VALUE);
+        try (Stream<CourseListItemDTO> courses = courseRepository.streamAllListItems()) {
+            JsonStreaming.writeArray(objectMapper, response.getOutputStream(), courses);
+        }
     }
 
     @PostMapping("/course/{id}/publish")
     @Transactional
     @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
     public ResponseEntity createCourse(@PathVariable("id") Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Course doesn't exist"));
-
-        if (course.isPublished()) {
-            return ResponseEntity.status(BAD_REQUEST).body("Course must be in BUILDING status to be published.");
+        Optional<CoursePublicationDTO> possibleCourse = courseRepository.findPublicationById(id);
+        if (possibleCourse.isEmpty()) {
+            publishMetrics.rejected(PublishRejection.NOT_FOUND);
+            throw new EntityNotFoundException(COURSE_NOT_FOUND_MESSAGE);
         }
+        CoursePublicationDTO course = possibleCourse.get();
 
-        if (!course.hasAllTypeOfTasks()) {
-            return ResponseEntity.status(BAD_REQUEST).body("Course must have at least one task of each type.");
+        Optional<PublishRejection> problem = course.publishingProblem();
+        if (problem.isPresent()) {
+            publishMetrics.rejected(problem.get());
+            return ResponseEntity.status(BAD_REQUEST).body(problem.get().message());
         }
 
-        if (!course.hasAllTasksInValidOrder()) {
-            return ResponseEntity.status(BAD_REQUEST).body("Course must have all tasks in continuous order.");
+        if (courseRepository.publishIfBuilding(id, LocalDateTime.now()) == 0) {
+            publishMetrics.rejected(PublishRejection.NOT_BUILDING);
+            return ResponseEntity.status(BAD_REQUEST).body(PublishRejection.NOT_BUILDING.message());
         }
-
-        course.publish();
-        courseRepository.save(course);
+        eventPublisher.publishEvent(new CoursePublishedEvent(id, course.instructorId()));
+        publishMetrics.published();
 
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/course/publish/batch")
+    @Transactional
+    @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
+    public List<CoursePublishResultDTO> publishCourses(@Valid @RequestBody BatchPublishDTO batchPublishDTO) {
+        List<Long> ids = batchPublishDTO.courseIds().stream().distinct().toList();
+        courseRepository.lockByIdIn(ids);
+        Map<Long, CoursePublicationDTO> publications = courseRepository.findPublicationsByIdIn(ids).stream()
+                .collect(toMap(CoursePublicationDTO::id, identity()));
+
+        Map<Long, CoursePublishResultDTO> rejections = new HashMap<>();
+        List<Long> eligibleIds = new ArrayList<>();
+        for (Long id : ids) {
+            CoursePublicationDTO publication = publications.get(id);
+            if (publication == null) {
+                publishMetrics.rejected(PublishRejection.NOT_FOUND);
+                rejections.put(id, CoursePublishResultDTO.rejected(id, COURSE_NOT_FOUND_MESSAGE));
+                continue;
+            }
+            Optional<PublishRejection> problem = publication.publishingProblem();
+            if (problem.isPresent()) {
+                publishMetrics.rejected(problem.get());
+                rejections.put(id, CoursePublishResultDTO.rejected(id, problem.get().message()));
+            } else {
+                eligibleIds.add(id);
+            }
+        }
+
+        if (!eligibleIds.isEmpty()) {
+            if (courseRepository.publishAllIfBuilding(eligibleIds, LocalDateTime.now()) != eligibleIds.size()) {
+                throw new IllegalStateException(BATCH_PUBLISH_CONFLICT_MESSAGE);
+            }
+            eligibleIds.forEach(id -> {
+                publishMetrics.published();
+                eventPublisher.publishEvent(new CoursePublishedEvent(id, publications.get(id).instructorId()));
+            });
+        }
+        List<CoursePublishResultDTO> results = ids.stream()
+                .map(id -> rejections.getOrDefault(id, CoursePublishResultDTO.published(id)))
+                .toList();
+        return results;
+    }
+
 }
@@ -0,0 +1,41 @@
+package br.com.alura.AluraFake.course;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record CourseDetailDTO(Long id,
+                              String title,
+                              String description,
+                              Status status,
+                              String instructorName,
+                              String instructorEmail,
+                              LocalDateTime publishedAt,
+                              List<CourseTaskDTO> tasks) {
+
+    public CourseDetailDTO(Long id, String title, String description, Status status, String instructorName, String instructorEmail, LocalDateTime publishedAt) {
+        this(id, title, description, status, instructorName, instructorEmail, publishedAt, List.of());
+    }
+
+    public CourseDetailDTO withTasks(List<CourseTaskRowDTO> rows) {
+        List<CourseTaskDTO> tasks = new ArrayList<>();
+        CourseTaskRowDTO previous = null;
+        int order = 0;
+        for (CourseTaskRowDTO row : rows) {
+            if (previous == null || !previous.taskId().equals(row.taskId())) {
+                if (previous == null || !previous.rank().equals(row.rank())) {
+                    order++;
+                }
+                tasks.add(new CourseTaskDTO(row.taskId(), row.type(), row.statement(), order, new ArrayList<>()));
+            }
+            if (row.option() != null) {
+                tasks.getLast().options().add(new CourseTaskOptionDTO(row.option(), row.isCorrect()));
+            }
+            previous = row;
+        }
+        List<CourseTaskDTO> immutableTasks = tasks.stream()
+                .map(task -> new CourseTaskDTO(task.id(), task.type(), task.statement(), task.order(), List.copyOf(task.options())))
+                .toList();
+        return new CourseDetailDTO(id, title, description, status, instructorName, instructorEmail, publishedAt, immutableTasks);
+    }
+}
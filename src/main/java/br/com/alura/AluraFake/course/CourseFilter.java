@@ -0,0 +1,18 @@
+package br.com.alura.AluraFake.course;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+public record CourseFilter(
+        Long instructorId,
+        Status status,
+        @DateTimeFormat(iso = DATE_TIME) LocalDateTime createdFrom,
+        @DateTimeFormat(iso = DATE_TIME) LocalDateTime createdTo,
+        @DateTimeFormat(iso = DATE_TIME) LocalDateTime publishedFrom,
+        @DateTimeFormat(iso = DATE_TIME) LocalDateTime publishedTo,
+        CourseSort sort
+) {
+}
@@ -0,0 +1,11 @@
+package br.com.alura.AluraFake.course;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CourseFilterRepository {
+
+    List<CourseListItemDTO> findListItems(Specification<Course> specification, Sort sort, int offset, int limit);
+}
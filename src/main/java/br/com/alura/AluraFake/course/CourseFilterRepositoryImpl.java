@@ -0,0 +1,40 @@
+package br.com.alura.AluraFake.course;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+class CourseFilterRepositoryImpl implements CourseFilterRepository {
+
+    private final EntityManager entityManager;
+
+    CourseFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CourseListItemDTO> findListItems(Specification<Course> specification, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CourseListItemDTO> query = cb.createQuery(CourseListItemDTO.class);
+        Root<Course> course = query.from(Course.class);
+        Join<Course, CourseSummary> summary = course.join("summary", JoinType.LEFT);
+
+        query.select(cb.construct(CourseListItemDTO.class, course.get("id"), course.get("title"), course.get("description"),
+                course.get("status"), cb.coalesce(summary.<Integer>get("taskCount"), 0)));
+        Predicate predicate = specification.toPredicate(course, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, course, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -8,12 +8,14 @@ public class CourseListItemDTO implements Serializable {
     private String title;
     private String description;
     private Status status;
-
-    public CourseListItemDTO(Course course) {
-        this.id = course.getId();
-        this.title = course.getTitle();
-        this.description = course.getDescription();
-        this.status = course.getStatus();
+    private Integer taskCount;
+
+    public CourseListItemDTO(Long id, String title, String description, Status status, Integer taskCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.taskCount = taskCount;
     }
 
     public Long getId() {
@@ -31,4 +33,8 @@ public class CourseListItemDTO implements Serializable {
     public Status getStatus() {
         return status;
     }
+
+    public Integer getTaskCount() {
+        return taskCount;
+    }
 }
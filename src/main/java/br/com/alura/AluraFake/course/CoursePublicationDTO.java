@@ -0,0 +1,44 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public record CoursePublicationDTO(Long id, Long instructorId, Status status, int typeCount, int taskCount, int distinctRankCount) {
+
+    public static final String NOT_BUILDING_MESSAGE = "Course must be in BUILDING status to be published.";
+    public static final String MISSING_TASK_TYPES_MESSAGE = "Course must have at least one task of each type.";
+    public static final String NON_CONTINUOUS_ORDER_MESSAGE = "Course must have all tasks in continuous order.";
+
+    public CoursePublicationDTO(Long id, Long instructorId, Status status, Integer openTextCount, Integer singleChoiceCount, Integer multipleChoiceCount,
+                                Integer taskCount, Integer distinctRankCount) {
+        this(id, instructorId, status, (int) Stream.of(openTextCount, singleChoiceCount, multipleChoiceCount).filter(count -> count != null && count > 0).count(),
+                taskCount == null ? 0 : taskCount, distinctRankCount == null ? 0 : distinctRankCount);
+    }
+
+    public boolean isPublished() {
+        return Status.PUBLISHED.equals(status);
+    }
+
+    public boolean hasAllTypeOfTasks() {
+        return typeCount == Type.values().length;
+    }
+
+    public boolean hasAllTasksInValidOrder() {
+        return distinctRankCount == taskCount;
+    }
+
+    public Optional<PublishRejection> publishingProblem() {
+        if (isPublished()) {
+            return Optional.of(PublishRejection.NOT_BUILDING);
+        }
+        if (!hasAllTypeOfTasks()) {
+            return Optional.of(PublishRejection.MISSING_TASK_TYPES);
+        }
+        if (!hasAllTasksInValidOrder()) {
+            return Optional.of(PublishRejection.NON_CONTINUOUS_ORDER);
+        }
+        return Optional.empty();
+    }
+}
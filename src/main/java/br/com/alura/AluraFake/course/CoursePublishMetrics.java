@@ -0,0 +1,32 @@
+package br.com.alura.AluraFake.course;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class CoursePublishMetrics {
+
+    private static final String PUBLISH_ATTEMPTS = "alurafake.course.publish.attempts";
+
+    private final Counter published;
+    private final Map<PublishRejection, Counter> rejected = new EnumMap<>(PublishRejection.class);
+
+    public CoursePublishMetrics(MeterRegistry meterRegistry) {
+        this.published = Counter.builder(PUBLISH_ATTEMPTS).tag("outcome", "published").register(meterRegistry);
+        for (PublishRejection reason : PublishRejection.values()) {
+            rejected.put(reason, Counter.builder(PUBLISH_ATTEMPTS).tag("outcome", reason.name().toLowerCase()).register(meterRegistry));
+        }
+    }
+
+    public void published() {
+        published.increment();
+    }
+
+    public void rejected(PublishRejection reason) {
+        rejected.get(reason).increment();
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.alura.AluraFake.course;
+
+public record CoursePublishResultDTO(Long courseId, boolean published, String message) {
+
+    public static CoursePublishResultDTO published(Long courseId) {
+        return new CoursePublishResultDTO(courseId, true, null);
+    }
+
+    public static CoursePublishResultDTO rejected(Long courseId, String message) {
+        return new CoursePublishResultDTO(courseId, false, message);
+    }
+}
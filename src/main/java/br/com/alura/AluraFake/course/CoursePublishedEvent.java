@@ -0,0 +1,19 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.instructor.InstructorContentChangedEvent;
+import br.com.alura.AluraFake.outbox.OutboxMessage;
+import br.com.alura.AluraFake.util.CollectionChangedEvent;
+import br.com.alura.AluraFake.util.VersionedCollection;
+
+public record CoursePublishedEvent(Long courseId, Long instructorId) implements CollectionChangedEvent, InstructorContentChangedEvent, OutboxMessage {
+
+    @Override
+    public VersionedCollection collection() {
+        return VersionedCollection.COURSES;
+    }
+
+    @Override
+    public String orderingKey() {
+        return "course-" + courseId;
+    }
+}
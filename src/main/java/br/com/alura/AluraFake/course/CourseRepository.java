@@ -1,7 +1,87 @@
 package br.com.alura.AluraFake.course;
 
+import br.com.alura.AluraFake.instructor.InstructorStatsRowDTO;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface CourseRepository extends JpaRepository<Course, Long>{
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface CourseRepository extends JpaRepository<Course, Long>, CourseFilterRepository {
+
+    @Query("select new br.com.alura.AluraFake.course.CourseListItemDTO(c.id, c.title, c.description, c.status, coalesce(s.taskCount, 0)) from Course c left join c.summary s where c.id > :after order by c.id")
+    List<CourseListItemDTO> findListItemsAfter(Long after, Limit limit);
+
+    @Query("select new br.com.alura.AluraFake.course.CourseListItemDTO(c.id, c.title, c.description, c.status, coalesce(s.taskCount, 0)) from Course c left join c.summary s order by c.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<CourseListItemDTO> streamAllListItems();
+
+    @Query("select new br.com.alura.AluraFake.course.CourseTitleDTO(c.id, c.title, c.status) from Course c")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<CourseTitleDTO> streamAllTitles();
+
+    @Query("select new br.com.alura.AluraFake.course.CourseTitleDTO(c.id, c.title, c.status) from Course c where c.id = :id")
+    Optional<CourseTitleDTO> findTitleById(Long id);
+
+    @Query("select new br.com.alura.AluraFake.course.CourseSearchRowDTO(c.id, c.title, c.description, c.status, t.statement) from Course c left join c.tasks t order by c.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<CourseSearchRowDTO> streamSearchRows();
+
+    @Query("select new br.com.alura.AluraFake.course.CourseSearchRowDTO(c.id, c.title, c.description, c.status, t.statement) from Course c left join c.tasks t where c.id = :id")
+    List<CourseSearchRowDTO> findSearchRowsById(Long id);
+
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("select new br.com.alura.AluraFake.course.CourseAuthoringDTO(c.id, c.instructor.id, c.title, c.status) from Course c where c.id = :id")
+    Optional<CourseAuthoringDTO> findAuthoringById(Long id);
+
+    @Query("select new br.com.alura.AluraFake.course.CourseDetailDTO(c.id, c.title, c.description, c.status, i.name, i.email, c.publishedAt) from Course c join c.instructor i where c.id = :id")
+    Optional<CourseDetailDTO> findDetailById(Long id);
+
+    @Query("select new br.com.alura.AluraFake.course.CourseTaskRowDTO(t.id, t.type, t.statement, t.rank, o.option, o.isCorrect) from Task t left join Options o on o.task.id = t.id where t.course.id = :courseId order by t.rank, t.id, o.id")
+    List<CourseTaskRowDTO> findTaskRowsByCourseId(Long courseId);
+
+    @Query("select new br.com.alura.AluraFake.course.CourseChangeDTO(c.id, c.title, c.description, c.status, c.publishedAt, c.updatedAt) from Course c where c.updatedAt >= :since and (c.updatedAt > :since or c.id > :after) and c.updatedAt <= :until order by c.updatedAt, c.id")
+    List<CourseChangeDTO> findChangesAfter(LocalDateTime since, Long after, LocalDateTime until, Limit limit);
+
+    @Query("select new br.com.alura.AluraFake.course.CoursePublicationDTO(c.id, c.instructor.id, c.status, s.openTextCount, s.singleChoiceCount, s.multipleChoiceCount, s.taskCount, s.distinctRankCount) from Course c left join c.summary s where c.id = :id")
+    Optional<CoursePublicationDTO> findPublicationById(Long id);
+
+    @Query("select new br.com.alura.AluraFake.course.CoursePublicationDTO(c.id, c.instructor.id, c.status, s.openTextCount, s.singleChoiceCount, s.multipleChoiceCount, s.taskCount, s.distinctRankCount) from Course c left join c.summary s where c.id in :ids")
+    List<CoursePublicationDTO> findPublicationsByIdIn(Collection<Long> ids);
+
+    @Query("select c.id from Course c where c.id > :after order by c.id")
+    List<Long> findIdsAfter(Long after, Limit limit);
+
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("select c.id from Course c where c.id in :ids order by c.id")
+    List<Long> lockByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Course c set c.status = br.com.alura.AluraFake.course.Status.PUBLISHED, c.publishedAt = :publishedAt, c.updatedAt = :publishedAt where c.id = :id and c.status = br.com.alura.AluraFake.course.Status.BUILDING")
+    int publishIfBuilding(Long id, LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("update Course c set c.status = br.com.alura.AluraFake.course.Status.PUBLISHED, c.publishedAt = :publishedAt, c.updatedAt = :publishedAt where c.id in :ids and c.status = br.com.alura.AluraFake.course.Status.BUILDING")
+    int publishAllIfBuilding(Collection<Long> ids, LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("update Course c set c.updatedAt = :updatedAt where c.id = :id")
+    void touchUpdatedAt(Long id, LocalDateTime updatedAt);
+
+    @Query("select new br.com.alura.AluraFake.instructor.InstructorStatsRowDTO(c.status, count(c.id), coalesce(sum(s.openTextCount), 0L), coalesce(sum(s.singleChoiceCount), 0L), coalesce(sum(s.multipleChoiceCount), 0L)) from Course c left join c.summary s where c.instructor.id = :instructorId group by c.status")
+    List<InstructorStatsRowDTO> findInstructorStats(Long instructorId);
+
+    @Query("select c.id from Course c where c.status = :status order by c.publishedAt desc")
+    List<Long> findIdsByStatusOrderByPublishedAtDesc(Status status, Limit limit);
 }
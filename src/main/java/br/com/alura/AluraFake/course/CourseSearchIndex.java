@@ -0,0 +1,136 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.outbox.OutboxDelivery;
+import br.com.alura.AluraFake.task.TaskCreatedEvent;
+import br.com.alura.AluraFake.util.SearchText;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+@Component
+public class CourseSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TEXT_WEIGHT = 1;
+
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Long, IndexedCourse> courses = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+
+    public CourseSearchIndex(CourseRepository courseRepository, PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<CourseSearchResultDTO> search(String query, int limit) {
+        List<String> terms = SearchText.tokenize(query).stream().distinct().toList();
+        Map<Long, Double> scores = new HashMap<>();
+        double documentCount = Math.max(courses.size(), 1);
+        for (String term : terms) {
+            Map<Long, Integer> documents = postings.get(term);
+            if (documents == null) {
+                continue;
+            }
+            double idf = Math.log(1 + documentCount / documents.size());
+            documents.forEach((id, weight) -> scores.merge(id, (1 + Math.log(weight)) * idf, Double::sum));
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(score -> {
+                    IndexedCourse course = courses.get(score.getKey());
+                    return course == null ? null : new CourseSearchResultDTO(course.id(), course.title(), course.status(), score.getValue());
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CourseSearchRowDTO> rows = courseRepository.streamSearchRows()) {
+                List<CourseSearchRowDTO> current = new ArrayList<>();
+                rows.forEachOrdered(row -> {
+                    if (!current.isEmpty() && !current.getFirst().id().equals(row.id())) {
+                        index(current, false);
+                        current.clear();
+                    }
+                    current.add(row);
+                });
+                if (!current.isEmpty()) {
+                    index(current, false);
+                }
+            }
+        });
+    }
+
+    @EventListener
+    public void onCourseCreated(OutboxDelivery<CourseCreatedEvent> delivery) {
+        reindex(delivery.event().courseId());
+    }
+
+    @EventListener
+    public void onTaskCreated(OutboxDelivery<TaskCreatedEvent> delivery) {
+        reindex(delivery.event().courseId());
+    }
+
+    @EventListener
+    public void onCoursePublished(OutboxDelivery<CoursePublishedEvent> delivery) {
+        reindex(delivery.event().courseId());
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    private void reindex(Long courseId) {
+        List<CourseSearchRowDTO> rows = readOnlyTransaction.execute(status -> courseRepository.findSearchRowsById(courseId));
+        if (rows != null && !rows.isEmpty()) {
+            index(rows, true);
+        }
+    }
+
+    private void index(List<CourseSearchRowDTO> rows, boolean replace) {
+        CourseSearchRowDTO course = rows.getFirst();
+        Map<String, Integer> weights = new HashMap<>();
+        SearchText.tokenize(course.title()).forEach(term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        SearchText.tokenize(course.description()).forEach(term -> weights.merge(term, TEXT_WEIGHT, Integer::sum));
+        rows.forEach(row -> SearchText.tokenize(row.statement()).forEach(term -> weights.merge(term, TEXT_WEIGHT, Integer::sum)));
+        IndexedCourse indexed = new IndexedCourse(course.id(), course.title(), course.status(), Map.copyOf(weights));
+
+        courses.compute(course.id(), (id, previous) -> {
+            // Startup rows may be older than a reindex that an outbox delivery already applied.
+            if (previous != null && !replace) {
+                return previous;
+            }
+            if (previous != null) {
+                previous.weights().keySet().stream()
+                        .filter(term -> !indexed.weights().containsKey(term))
+                        .forEach(term -> postings.computeIfPresent(term, (key, documents) -> {
+                            documents.remove(id);
+                            return documents.isEmpty() ? null : documents;
+                        }));
+            }
+            indexed.weights().forEach((term, weight) -> postings.compute(term, (key, documents) -> {
+                Map<Long, Integer> updated = documents == null ? new ConcurrentHashMap<>() : documents;
+                updated.put(id, weight);
+                return updated;
+            }));
+            return indexed;
+        });
+    }
+
+    private record IndexedCourse(Long id, String title, Status status, Map<String, Integer> weights) {
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseSearchResultDTO(Long id, String title, Status status, double score) {
+}
@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseSearchRowDTO(Long id, String title, String description, Status status, String statement) {
+}
@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.util.JsonBytes;
+
+public record CourseSnapshot(CourseDetailDTO course, JsonBytes json) {
+}
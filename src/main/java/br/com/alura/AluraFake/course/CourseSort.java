@@ -0,0 +1,21 @@
+package br.com.alura.AluraFake.course;
+
+import org.springframework.data.domain.Sort;
+
+public enum CourseSort {
+    ID(Sort.by("id")),
+    CREATED_AT(Sort.by("createdAt", "id")),
+    CREATED_AT_DESC(Sort.by(Sort.Direction.DESC, "createdAt", "id")),
+    PUBLISHED_AT(Sort.by("publishedAt", "id")),
+    PUBLISHED_AT_DESC(Sort.by(Sort.Direction.DESC, "publishedAt", "id"));
+
+    private final Sort sort;
+
+    CourseSort(Sort sort) {
+        this.sort = sort;
+    }
+
+    public Sort toSort() {
+        return sort;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.alura.AluraFake.course;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public class CourseSpecifications {
+
+    public static Specification<Course> matching(CourseFilter filter) {
+        return Specification.allOf(
+                byInstructor(filter.instructorId()),
+                byStatus(filter.status()),
+                between("createdAt", filter.createdFrom(), filter.createdTo()),
+                between("publishedAt", filter.publishedFrom(), filter.publishedTo()));
+    }
+
+    public static Specification<Course> byInstructor(Long instructorId) {
+        return (root, query, cb) -> instructorId == null ? null : cb.equal(root.get("instructor").get("id"), instructorId);
+    }
+
+    public static Specification<Course> byStatus(Status status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Course> between(String attribute, LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (from == null) {
+                return cb.lessThan(root.get(attribute), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get(attribute), from), cb.lessThan(root.get(attribute), to));
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "course_summary")
+public class CourseSummary {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    private Course course;
+
+    @Column(name = "task_count")
+    private int taskCount;
+    @Column(name = "open_text_count")
+    private int openTextCount;
+    @Column(name = "single_choice_count")
+    private int singleChoiceCount;
+    @Column(name = "multiple_choice_count")
+    private int multipleChoiceCount;
+    @Column(name = "distinct_rank_count")
+    private int distinctRankCount;
+    @Column(name = "max_rank")
+    private long maxRank;
+
+    @Deprecated
+    public CourseSummary() {}
+
+    CourseSummary(Course course) {
+        this.course = course;
+    }
+
+    void recordTask(Type type, long maxRank, int distinctRankCount) {
+        switch (type) {
+            case OPEN_TEXT -> openTextCount++;
+            case SINGLE_CHOICE -> singleChoiceCount++;
+            case MULTIPLE_CHOICE -> multipleChoiceCount++;
+        }
+        this.taskCount++;
+        this.maxRank = maxRank;
+        this.distinctRankCount = distinctRankCount;
+    }
+
+    boolean reconcile(CourseSummaryRowDTO row) {
+        boolean drifted = taskCount != row.taskCount() || openTextCount != row.openTextCount()
+                || singleChoiceCount != row.singleChoiceCount() || multipleChoiceCount != row.multipleChoiceCount()
+                || distinctRankCount != row.distinctRankCount() || maxRank != row.maxRank();
+        this.taskCount = row.taskCount();
+        this.openTextCount = row.openTextCount();
+        this.singleChoiceCount = row.singleChoiceCount();
+        this.multipleChoiceCount = row.multipleChoiceCount();
+        this.distinctRankCount = row.distinctRankCount();
+        this.maxRank = row.maxRank();
+        return drifted;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getOpenTextCount() {
+        return openTextCount;
+    }
+
+    public int getSingleChoiceCount() {
+        return singleChoiceCount;
+    }
+
+    public int getMultipleChoiceCount() {
+        return multipleChoiceCount;
+    }
+
+    public int getDistinctRankCount() {
+        return distinctRankCount;
+    }
+
+    public long getMaxRank() {
+        return maxRank;
+    }
+}
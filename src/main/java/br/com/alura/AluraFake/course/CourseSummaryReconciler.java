@@ -0,0 +1,81 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.util.CollectionVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static br.com.alura.AluraFake.util.VersionedCollection.COURSES;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+@Component
+public class CourseSummaryReconciler {
+
+    private final CourseRepository courseRepository;
+    private final CourseSummaryRepository courseSummaryRepository;
+    private final CollectionVersions collectionVersions;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    public CourseSummaryReconciler(CourseRepository courseRepository,
+                                   CourseSummaryRepository courseSummaryRepository,
+                                   CollectionVersions collectionVersions,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${alurafake.course-summary.reconcile-chunk-size:500}") int chunkSize) {
+        this.courseRepository = courseRepository;
+        this.courseSummaryRepository = courseSummaryRepository;
+        this.collectionVersions = collectionVersions;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${alurafake.course-summary.reconcile-cron:0 0 4 * * *}")
+    public int reconcileAll() {
+        int repaired = 0;
+        Chunk chunk = new Chunk(0L, 0);
+        while (chunk.nextAfter() != null) {
+            Long after = chunk.nextAfter();
+            chunk = chunkTransaction.execute(status -> reconcileChunk(after));
+            repaired += chunk.repaired();
+        }
+        return repaired;
+    }
+
+    private Chunk reconcileChunk(Long after) {
+        List<Long> courseIds = courseRepository.findIdsAfter(after, Limit.of(chunkSize));
+        if (courseIds.isEmpty()) {
+            return new Chunk(null, 0);
+        }
+        courseRepository.lockByIdIn(courseIds);
+        Map<Long, CourseSummaryRowDTO> rows = courseSummaryRepository.aggregateTasksByCourseIdIn(courseIds).stream()
+                .collect(toMap(CourseSummaryRowDTO::courseId, identity()));
+        Map<Long, CourseSummary> summaries = courseSummaryRepository.findAllById(courseIds).stream()
+                .collect(toMap(CourseSummary::getCourseId, identity()));
+
+        int repaired = 0;
+        for (Long courseId : courseIds) {
+            CourseSummary summary = summaries.get(courseId);
+            boolean missing = summary == null;
+            if (missing) {
+                summary = courseSummaryRepository.save(new CourseSummary(courseRepository.getReferenceById(courseId)));
+            }
+            if (summary.reconcile(rows.getOrDefault(courseId, CourseSummaryRowDTO.empty(courseId))) || missing) {
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            collectionVersions.changed(COURSES);
+        }
+        return new Chunk(courseIds.size() < chunkSize ? null : courseIds.getLast(), repaired);
+    }
+
+    private record Chunk(Long nextAfter, int repaired) {
+    }
+}
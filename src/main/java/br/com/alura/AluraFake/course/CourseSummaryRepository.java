@@ -0,0 +1,22 @@
+package br.com.alura.AluraFake.course;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CourseSummaryRepository extends JpaRepository<CourseSummary, Long> {
+
+    @Modifying
+    @Query("update CourseSummary s set s.taskCount = s.taskCount + :openText + :singleChoice + :multipleChoice, s.openTextCount = s.openTextCount + :openText, s.singleChoiceCount = s.singleChoiceCount + :singleChoice, s.multipleChoiceCount = s.multipleChoiceCount + :multipleChoice, s.distinctRankCount = s.distinctRankCount + :openText + :singleChoice + :multipleChoice, s.maxRank = case when s.maxRank < :maxRank then :maxRank else s.maxRank end where s.courseId = :courseId")
+    int recordTasks(Long courseId, int openText, int singleChoice, int multipleChoice, long maxRank);
+
+    @Modifying
+    @Query("update CourseSummary s set s.distinctRankCount = s.taskCount, s.maxRank = :maxRank where s.courseId = :courseId")
+    int recordRenormalizedRanks(Long courseId, long maxRank);
+
+    @Query("select new br.com.alura.AluraFake.course.CourseSummaryRowDTO(t.course.id, count(t.id), sum(case when t.type = br.com.alura.AluraFake.task.Type.OPEN_TEXT then 1L else 0L end), sum(case when t.type = br.com.alura.AluraFake.task.Type.SINGLE_CHOICE then 1L else 0L end), sum(case when t.type = br.com.alura.AluraFake.task.Type.MULTIPLE_CHOICE then 1L else 0L end), count(distinct t.rank), max(t.rank)) from Task t where t.course.id in :courseIds group by t.course.id")
+    List<CourseSummaryRowDTO> aggregateTasksByCourseIdIn(Collection<Long> courseIds);
+}
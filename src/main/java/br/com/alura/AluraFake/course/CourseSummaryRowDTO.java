@@ -0,0 +1,15 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseSummaryRowDTO(Long courseId, int taskCount, int openTextCount, int singleChoiceCount,
+                                  int multipleChoiceCount, int distinctRankCount, long maxRank) {
+
+    public CourseSummaryRowDTO(Long courseId, Long taskCount, Long openTextCount, Long singleChoiceCount,
+                               Long multipleChoiceCount, Long distinctRankCount, Long maxRank) {
+        this(courseId, taskCount.intValue(), openTextCount.intValue(), singleChoiceCount.intValue(),
+                multipleChoiceCount.intValue(), distinctRankCount.intValue(), maxRank);
+    }
+
+    public static CourseSummaryRowDTO empty(Long courseId) {
+        return new CourseSummaryRowDTO(courseId, 0, 0, 0, 0, 0, 0L);
+    }
+}
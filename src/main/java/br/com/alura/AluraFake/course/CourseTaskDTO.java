@@ -0,0 +1,8 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+
+import java.util.List;
+
+public record CourseTaskDTO(Long id, Type type, String statement, Integer order, List<CourseTaskOptionDTO> options) {
+}
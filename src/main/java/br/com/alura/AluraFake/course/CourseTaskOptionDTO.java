@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseTaskOptionDTO(String option, Boolean isCorrect) {
+}
@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+
+public record CourseTaskRowDTO(Long taskId, Type type, String statement, Long rank, String option, Boolean isCorrect) {
+}
@@ -0,0 +1,153 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.outbox.OutboxDelivery;
+import br.com.alura.AluraFake.util.SearchText;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+@Component
+public class CourseTitleAutocomplete {
+
+    private static final Comparator<Entry> BY_KEY_AND_ID = Comparator.comparing((Entry entry) -> entry.key).thenComparing(entry -> entry.id);
+    // Every match starts with the prefix, so the shortest key is the closest one and an exact match always ranks first.
+    private static final Comparator<Entry> BY_RANK = Comparator.comparingInt((Entry entry) -> entry.key.length()).thenComparing(BY_KEY_AND_ID);
+
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Long, Entry> entriesById = new ConcurrentHashMap<>();
+    private volatile Entry[] entries = new Entry[0];
+
+    public CourseTitleAutocomplete(CourseRepository courseRepository, PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<CourseTitleDTO> complete(String prefix, Status status, int limit) {
+        String key = SearchText.fold(prefix).strip();
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Entry[] snapshot = entries;
+        PriorityQueue<Entry> best = new PriorityQueue<>(Math.min(limit, 16) + 1, BY_RANK.reversed());
+        for (int i = lowerBound(snapshot, key); i < snapshot.length; i++) {
+            Entry entry = snapshot[i];
+            if (!entry.key.startsWith(key)) {
+                break;
+            }
+            if (status == null || status.equals(entry.status)) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<CourseTitleDTO> matches = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Entry entry = best.poll();
+            matches.add(new CourseTitleDTO(entry.id, entry.title, entry.status));
+        }
+        return matches.reversed();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Entry> loaded = new ArrayList<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CourseTitleDTO> titles = courseRepository.streamAllTitles()) {
+                titles.forEach(title -> loaded.add(new Entry(title)));
+            }
+        });
+        addAll(loaded);
+    }
+
+    @EventListener
+    public void onCourseCreated(OutboxDelivery<CourseCreatedEvent> delivery) {
+        reload(delivery.event().courseId());
+    }
+
+    @EventListener
+    public void onCoursePublished(OutboxDelivery<CoursePublishedEvent> delivery) {
+        reload(delivery.event().courseId());
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    private void reload(Long courseId) {
+        readOnlyTransaction.execute(status -> courseRepository.findTitleById(courseId)).ifPresent(this::put);
+    }
+
+    private synchronized void put(CourseTitleDTO title) {
+        Entry existing = entriesById.get(title.id());
+        if (existing != null) {
+            existing.status = title.status();
+            return;
+        }
+        Entry entry = new Entry(title);
+        Entry[] current = entries;
+        int insertionPoint = -Arrays.binarySearch(current, entry, BY_KEY_AND_ID) - 1;
+        Entry[] grown = new Entry[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, insertionPoint);
+        grown[insertionPoint] = entry;
+        System.arraycopy(current, insertionPoint, grown, insertionPoint + 1, current.length - insertionPoint);
+        entriesById.put(entry.id, entry);
+        entries = grown;
+    }
+
+    // Skips ids already in entriesById: put() may have stored a fresher row while rebuild() was loading.
+    private synchronized void addAll(List<Entry> added) {
+        List<Entry> fresh = added.stream().filter(entry -> !entriesById.containsKey(entry.id)).toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+        Entry[] current = entries;
+        Entry[] merged = Arrays.copyOf(current, current.length + fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            merged[current.length + i] = fresh.get(i);
+        }
+        Arrays.sort(merged, BY_KEY_AND_ID);
+        fresh.forEach(entry -> entriesById.put(entry.id, entry));
+        entries = merged;
+    }
+
+    private static int lowerBound(Entry[] snapshot, String key) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot[middle].key.compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final Long id;
+        private final String title;
+        private volatile Status status;
+
+        private Entry(CourseTitleDTO course) {
+            this.key = SearchText.fold(course.title());
+            this.id = course.id();
+            this.title = course.title();
+            this.status = course.status();
+        }
+    }
+}
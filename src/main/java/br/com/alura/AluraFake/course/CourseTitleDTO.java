@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseTitleDTO(Long id, String title, Status status) {
+}
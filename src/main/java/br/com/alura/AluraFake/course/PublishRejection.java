@@ -0,0 +1,18 @@
+package br.com.alura.AluraFake.course;
+
+public enum PublishRejection {
+    NOT_FOUND("Course doesn't exist"),
+    NOT_BUILDING(CoursePublicationDTO.NOT_BUILDING_MESSAGE),
+    MISSING_TASK_TYPES(CoursePublicationDTO.MISSING_TASK_TYPES_MESSAGE),
+    NON_CONTINUOUS_ORDER(CoursePublicationDTO.NON_CONTINUOUS_ORDER_MESSAGE);
+
+    private final String message;
+
+    PublishRejection(String message) {
+        this.message = message;
+    }
+
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.outbox.OutboxDelivery;
+import br.com.alura.AluraFake.util.JsonBytes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static br.com.alura.AluraFake.course.Status.PUBLISHED;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+@Component
+public class PublishedCourseCache implements MeterBinder {
+
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, CourseSnapshot> snapshots;
+    private final int warmUpLimit;
+
+    public PublishedCourseCache(CourseRepository courseRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${alurafake.published-course-cache.max-bytes:67108864}") long maxBytes,
+                                @Value("${alurafake.published-course-cache.warm-up-limit:1000}") int warmUpLimit) {
+        this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, CourseSnapshot snapshot) -> estimatedBytes(snapshot))
+                .recordStats()
+                .build();
+        this.warmUpLimit = warmUpLimit;
+    }
+
+    public Optional<CourseSnapshot> get(Long id) {
+        CourseSnapshot cached = snapshots.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<CourseSnapshot> snapshot = load(id);
+        snapshot.filter(loaded -> PUBLISHED.equals(loaded.course().status()))
+                .ifPresent(published -> snapshots.put(id, published));
+        return snapshot;
+    }
+
+    @EventListener
+    public void onCoursePublished(OutboxDelivery<CoursePublishedEvent> delivery) {
+        load(delivery.event().courseId()).ifPresent(snapshot -> snapshots.put(snapshot.course().id(), snapshot));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        courseRepository.findIdsByStatusOrderByPublishedAtDesc(PUBLISHED, Limit.of(warmUpLimit))
+                .forEach(this::get);
+    }
+
+    public Cache<Long, CourseSnapshot> snapshots() {
+        return snapshots;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, snapshots, "publishedCourses");
+    }
+
+    private Optional<CourseSnapshot> load(Long id) {
+        return readOnlyTransaction.execute(status -> courseRepository.findDetailById(id)
+                        .map(course -> course.withTasks(courseRepository.findTaskRowsByCourseId(id))))
+                .map(course -> new CourseSnapshot(course, JsonBytes.of(objectMapper, course)));
+    }
+
+    private static int estimatedBytes(CourseSnapshot snapshot) {
+        CourseDetailDTO course = snapshot.course();
+        int bytes = 128 + chars(course.title()) + chars(course.description()) + chars(course.instructorName()) + chars(course.instructorEmail());
+        for (CourseTaskDTO task : course.tasks()) {
+            bytes += 96 + chars(task.statement());
+            for (CourseTaskOptionDTO option : task.options()) {
+                bytes += 64 + chars(option.option());
+            }
+        }
+        return bytes + snapshot.json().size();
+    }
+
+    private static int chars(String value) {
+        return value == null ? 0 : 2 * value.length();
+    }
+}
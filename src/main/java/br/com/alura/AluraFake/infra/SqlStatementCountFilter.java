@@ -0,0 +1,63 @@
+package br.com.alura.AluraFake.infra;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+
+    private final SqlStatementCounter counter;
+    private final Meter.MeterProvider<DistributionSummary> statementsPerRequest;
+    private final boolean responseHeader;
+
+    public SqlStatementCountFilter(SqlStatementCounter counter, MeterRegistry meterRegistry, boolean responseHeader) {
+        this.counter = counter;
+        this.statementsPerRequest = DistributionSummary.builder("alurafake.http.sql.statements")
+                .baseUnit("statements")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.responseHeader = responseHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        counter.start();
+        try {
+            filterChain.doFilter(request, responseHeader ? new CountingHeaderResponse(response) : response);
+        } finally {
+            int statements = counter.stop();
+            if (responseHeader && !response.isCommitted()) {
+                response.setIntHeader(STATEMENT_COUNT_HEADER, statements);
+            }
+            statementsPerRequest.withTags("method", request.getMethod(), "uri", uri(request)).record(statements);
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private class CountingHeaderResponse extends OnCommittedResponseWrapper {
+
+        CountingHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setIntHeader(STATEMENT_COUNT_HEADER, counter.current());
+        }
+    }
+}
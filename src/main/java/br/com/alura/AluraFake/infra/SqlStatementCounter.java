@@ -0,0 +1,32 @@
+package br.com.alura.AluraFake.infra;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    public int current() {
+        int[] statements = STATEMENTS.get();
+        return statements == null ? 0 : statements[0];
+    }
+
+    public int stop() {
+        int statements = current();
+        STATEMENTS.remove();
+        return statements;
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.alura.AluraFake.infra;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    ConnectionPoolLimiterFilter connectionPoolLimiterFilter(DataSource dataSource,
+                                                            @Value("${alurafake.connection-limiter.permits:0}") int permits,
+                                                            @Value("${alurafake.connection-limiter.headroom:4}") int headroom,
+                                                            @Value("${alurafake.connection-limiter.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new ConnectionPoolLimiterFilter(permits > 0 ? permits : defaultPermits(poolSize(dataSource), headroom), acquireTimeout);
+    }
+
+    // Outbox deliveries, the summary reconciler and cache warm-ups take connections without holding a permit, so
+    // requests are admitted only up to the pool size minus that headroom.
+    static int defaultPermits(int poolSize, int headroom) {
+        return Math.max(1, poolSize - headroom);
+    }
+
+    @Bean
+    FilterRegistrationBean<ConnectionPoolLimiterFilter> connectionPoolLimiterRegistration(ConnectionPoolLimiterFilter filter) {
+        FilterRegistrationBean<ConnectionPoolLimiterFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        int configured = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : -1;
+        return configured > 0 ? configured : DEFAULT_POOL_SIZE;
+    }
+}
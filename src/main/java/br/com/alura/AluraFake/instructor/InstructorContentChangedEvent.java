@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.instructor;
+
+public interface InstructorContentChangedEvent {
+
+    Long instructorId();
+}
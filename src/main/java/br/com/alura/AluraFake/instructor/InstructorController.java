@@ -0,0 +1,23 @@
+package br.com.alura.AluraFake.instructor;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class InstructorController {
+
+    private final InstructorStatsCache instructorStatsCache;
+
+    public InstructorController(InstructorStatsCache instructorStatsCache) {
+        this.instructorStatsCache = instructorStatsCache;
+    }
+
+    @GetMapping("/instructor/me/stats")
+    @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
+    public InstructorStatsDTO myStats(Authentication authentication) {
+        Long instructorId = Long.valueOf(authentication.getName());
+        return instructorStatsCache.get(instructorId);
+    }
+}
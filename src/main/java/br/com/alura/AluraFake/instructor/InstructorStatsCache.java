@@ -0,0 +1,49 @@
+package br.com.alura.AluraFake.instructor;
+
+import br.com.alura.AluraFake.course.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+@Component
+public class InstructorStatsCache implements MeterBinder {
+
+    private final CourseRepository courseRepository;
+    private final Cache<Long, InstructorStatsDTO> stats;
+
+    public InstructorStatsCache(CourseRepository courseRepository,
+                                @Value("${alurafake.instructor-stats-cache.max-size:10000}") long maxSize,
+                                @Value("${alurafake.instructor-stats-cache.ttl:10m}") Duration ttl) {
+        this.courseRepository = courseRepository;
+        this.stats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public InstructorStatsDTO get(Long instructorId) {
+        return stats.get(instructorId, id -> InstructorStatsDTO.of(courseRepository.findInstructorStats(id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInstructorContentChanged(InstructorContentChangedEvent event) {
+        stats.invalidate(event.instructorId());
+    }
+
+    public Cache<Long, InstructorStatsDTO> stats() {
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, stats, "instructorStats");
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.alura.AluraFake.instructor;
+
+import br.com.alura.AluraFake.course.Status;
+import br.com.alura.AluraFake.task.Type;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public record InstructorStatsDTO(long totalCourses, Map<Status, Long> coursesByStatus, long totalTasks, Map<Type, Long> tasksByType) {
+
+    public static InstructorStatsDTO of(List<InstructorStatsRowDTO> rows) {
+        Map<Status, Long> coursesByStatus = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            coursesByStatus.put(status, 0L);
+        }
+        Map<Type, Long> tasksByType = new EnumMap<>(Type.class);
+        for (Type type : Type.values()) {
+            tasksByType.put(type, 0L);
+        }
+        for (InstructorStatsRowDTO row : rows) {
+            coursesByStatus.merge(row.status(), row.courseCount(), Long::sum);
+            tasksByType.merge(Type.OPEN_TEXT, row.openTextCount(), Long::sum);
+            tasksByType.merge(Type.SINGLE_CHOICE, row.singleChoiceCount(), Long::sum);
+            tasksByType.merge(Type.MULTIPLE_CHOICE, row.multipleChoiceCount(), Long::sum);
+        }
+        long totalCourses = coursesByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long totalTasks = tasksByType.values().stream().mapToLong(Long::longValue).sum();
+        return new InstructorStatsDTO(totalCourses, coursesByStatus, totalTasks, tasksByType);
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.instructor;
+
+import br.com.alura.AluraFake.course.Status;
+
+public record InstructorStatsRowDTO(Status status, Long courseCount, Long openTextCount, Long singleChoiceCount, Long multipleChoiceCount) {
+}
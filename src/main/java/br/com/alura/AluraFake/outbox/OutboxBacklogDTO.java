@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.outbox;
+
+import java.time.LocalDateTime;
+
+public record OutboxBacklogDTO(Long pending, LocalDateTime oldestCreatedAt) {
+}
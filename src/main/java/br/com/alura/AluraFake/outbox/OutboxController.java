@@ -0,0 +1,19 @@
+package br.com.alura.AluraFake.outbox;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class OutboxController {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    public OutboxController(OutboxDispatcher outboxDispatcher) {
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    @GetMapping("/outbox/lag")
+    public OutboxLagDTO lag() {
+        return outboxDispatcher.lag();
+    }
+}
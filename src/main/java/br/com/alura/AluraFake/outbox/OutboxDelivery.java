@@ -0,0 +1,12 @@
+package br.com.alura.AluraFake.outbox;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+public record OutboxDelivery<E extends OutboxMessage>(Long outboxId, E event) implements ResolvableTypeProvider {
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(OutboxDelivery.class, ResolvableType.forInstance(event));
+    }
+}
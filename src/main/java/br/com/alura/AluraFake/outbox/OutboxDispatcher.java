@@ -0,0 +1,161 @@
+package br.com.alura.AluraFake.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+// The application runs as a single instance. Every subscriber (CourseSearchIndex, CourseTitleAutocomplete,
+// PublishedCourseCache) is an in-memory structure of this process, yet markDispatched consumes a row for everyone and
+// rows are read without claiming. Scaling out needs a consumer cursor per process instead of dispatchedAt, and
+// FOR UPDATE SKIP LOCKED claiming for any subscriber meant to be shared across instances.
+@Component
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final ExecutorService deliveries = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore deliverySlots;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final int batchSize;
+    private final Duration retention;
+    private volatile long lastDeliveryLagMillis;
+
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${alurafake.outbox.batch-size:200}") int batchSize,
+                            @Value("${alurafake.outbox.delivery-concurrency:2}") int deliveryConcurrency,
+                            @Value("${alurafake.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${alurafake.outbox.retry-backoff:PT1S}") Duration retryBackoff,
+                            @Value("${alurafake.outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.deliverySlots = new Semaphore(deliveryConcurrency);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${alurafake.outbox.poll-interval:PT0.5S}", fixedDelayString = "${alurafake.outbox.poll-interval:PT0.5S}")
+    public int dispatchPending() {
+        List<OutboxEvent> batch = outboxRepository.findPending(LocalDateTime.now(), Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<OutboxEvent>> byOrderingKey = batch.stream()
+                .collect(groupingBy(OutboxEvent::getOrderingKey, LinkedHashMap::new, toList()));
+        List<Future<List<OutboxEvent>>> running = byOrderingKey.values().stream()
+                .map(events -> deliveries.submit(() -> deliverInOrder(events)))
+                .toList();
+
+        List<OutboxEvent> delivered = new ArrayList<>(batch.size());
+        for (Future<List<OutboxEvent>> future : running) {
+            delivered.addAll(await(future));
+        }
+        if (!delivered.isEmpty()) {
+            LocalDateTime dispatchedAt = LocalDateTime.now();
+            transaction.executeWithoutResult(status -> outboxRepository.markDispatched(delivered.stream().map(OutboxEvent::getId).toList(), dispatchedAt));
+            LocalDateTime oldest = delivered.stream().map(OutboxEvent::getCreatedAt).min(LocalDateTime::compareTo).get();
+            lastDeliveryLagMillis = Duration.between(oldest, dispatchedAt).toMillis();
+        }
+        return delivered.size();
+    }
+
+    @Scheduled(cron = "${alurafake.outbox.purge-cron:0 30 4 * * *}")
+    public int purgeDispatched() {
+        return transaction.execute(status -> outboxRepository.deleteDispatchedBefore(LocalDateTime.now().minus(retention)));
+    }
+
+    public OutboxLagDTO lag() {
+        OutboxBacklogDTO backlog = outboxRepository.findBacklog();
+        long oldestPendingAgeMillis = backlog.oldestCreatedAt() == null ? 0 : Duration.between(backlog.oldestCreatedAt(), LocalDateTime.now()).toMillis();
+        return new OutboxLagDTO(backlog.pending(), outboxRepository.countByParkedAtIsNotNull(), oldestPendingAgeMillis, lastDeliveryLagMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveries.close();
+    }
+
+    // Subscribers open their own transactions, so only a few ordering keys are delivered at once and request traffic
+    // keeps the rest of the connection pool.
+    private List<OutboxEvent> deliverInOrder(List<OutboxEvent> events) throws InterruptedException {
+        deliverySlots.acquire();
+        try {
+            return deliverEach(events);
+        } finally {
+            deliverySlots.release();
+        }
+    }
+
+    private List<OutboxEvent> deliverEach(List<OutboxEvent> events) {
+        List<OutboxEvent> delivered = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                eventPublisher.publishEvent(new OutboxDelivery<>(event.getId(), event.toMessage(objectMapper)));
+                delivered.add(event);
+            } catch (RuntimeException e) {
+                recordFailure(event, e);
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    // Failed events are retried with exponential backoff, holding back later events of the same ordering key. After
+    // max-attempts they are parked, so a poisoned row no longer blocks its key or the head of the outbox.
+    private void recordFailure(OutboxEvent event, RuntimeException failure) {
+        String error = String.valueOf(failure);
+        String truncated = error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH));
+        int attempts = event.getAttempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        transaction.executeWithoutResult(status -> {
+            if (attempts >= maxAttempts) {
+                outboxRepository.park(event.getId(), truncated, now);
+            } else {
+                outboxRepository.recordFailedAttempt(event.getId(), truncated, now.plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20))));
+            }
+        });
+    }
+
+    private static List<OutboxEvent> await(Future<List<OutboxEvent>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.alura.AluraFake.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+import static java.time.LocalDateTime.now;
+
+@Entity
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private LocalDateTime createdAt = now();
+    private String orderingKey;
+    private String type;
+    private String payload;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime dispatchedAt;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime parkedAt;
+
+    @Deprecated
+    public OutboxEvent() {}
+
+    public OutboxEvent(OutboxMessage message, ObjectMapper objectMapper) {
+        this.orderingKey = message.orderingKey();
+        this.type = message.getClass().getName();
+        try {
+            this.payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public OutboxMessage toMessage(ObjectMapper objectMapper) {
+        try {
+            Class<? extends OutboxMessage> messageType = Class.forName(type).asSubclass(OutboxMessage.class);
+            return objectMapper.readValue(payload, messageType);
+        } catch (ClassNotFoundException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public LocalDateTime getParkedAt() {
+        return parkedAt;
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.outbox;
+
+public record OutboxLagDTO(long pending, long parked, long oldestPendingAgeMillis, long lastDeliveryLagMillis) {
+}
@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.outbox;
+
+public interface OutboxMessage {
+
+    String orderingKey();
+}
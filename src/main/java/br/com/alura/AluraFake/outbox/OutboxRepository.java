@@ -0,0 +1,43 @@
+package br.com.alura.AluraFake.outbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("""
+            select e from OutboxEvent e
+            where e.dispatchedAt is null and e.parkedAt is null and (e.nextAttemptAt is null or e.nextAttemptAt <= :now)
+              and not exists (select 1 from OutboxEvent earlier
+                              where earlier.orderingKey = e.orderingKey and earlier.id < e.id
+                                and earlier.dispatchedAt is null and earlier.parkedAt is null and earlier.nextAttemptAt > :now)
+            order by e.id""")
+    List<OutboxEvent> findPending(LocalDateTime now, Limit limit);
+
+    @Query("select new br.com.alura.AluraFake.outbox.OutboxBacklogDTO(count(e), min(e.createdAt)) from OutboxEvent e where e.dispatchedAt is null and e.parkedAt is null")
+    OutboxBacklogDTO findBacklog();
+
+    long countByParkedAtIsNotNull();
+
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatchedAt = :dispatchedAt where e.id in :ids")
+    int markDispatched(Collection<Long> ids, LocalDateTime dispatchedAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error, e.nextAttemptAt = :nextAttemptAt where e.id = :id")
+    void recordFailedAttempt(Long id, String error, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error, e.parkedAt = :parkedAt where e.id = :id")
+    void park(Long id, String error, LocalDateTime parkedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.dispatchedAt < :before")
+    int deleteDispatchedBefore(LocalDateTime before);
+}
@@ -2,6 +2,7 @@ package br.com.alura.AluraFake.security;
 
 import br.com.alura.AluraFake.user.User;
 import br.com.alura.AluraFake.user.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.apache.coyote.BadRequestException;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 import static java.time.Instant.now;
 
 @RestController
+@Timed(value = "alurafake.controller", histogram = true)
 public class TokenController {
 
     private static final Long ONE_DAY = 86400L;
@@ -0,0 +1,19 @@
+package br.com.alura.AluraFake.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTaskDTO(
+        @NotNull
+        Long courseId,
+
+        @NotEmpty
+        @Valid
+        @Size(max = 100, message = "A batch must have at most 100 tasks.")
+        List<BatchTaskItemDTO> tasks
+) {
+}
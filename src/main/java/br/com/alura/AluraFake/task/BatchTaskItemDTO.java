@@ -0,0 +1,53 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.Length;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+public record BatchTaskItemDTO(
+        @NotNull
+        Type type,
+
+        @NotBlank
+        @Length(min = 4, max = 255)
+        String statement,
+
+        @NotNull
+        @Positive
+        Integer order,
+
+        @Valid
+        List<OptionDTO> options
+) {
+
+        public Task toTask(Course course) {
+                return switch (type) {
+                        case OPEN_TEXT -> {
+                                Assert.isTrue(options == null || options.isEmpty(), "Open text activities can't have options.");
+                                yield new OpenTextTask(statement, order, course);
+                        }
+                        case SINGLE_CHOICE -> {
+                                Assert.isTrue(hasOptionsBetween(2, 5), "The activity must have between 2 and 5 options.");
+                                yield new SingleChoiceTask(statement, order, optionsAsEntites(), course);
+                        }
+                        case MULTIPLE_CHOICE -> {
+                                Assert.isTrue(hasOptionsBetween(3, 5), "The activity must have between 3 and 5 options.");
+                                yield new MultipleChoiceTask(statement, order, optionsAsEntites(), course);
+                        }
+                };
+        }
+
+        private boolean hasOptionsBetween(int min, int max) {
+                return options != null && options.size() >= min && options.size() <= max;
+        }
+
+        private List<Option> optionsAsEntites() {
+                return options.stream().map(OptionDTO::toEntity).toList();
+        }
+}
@@ -0,0 +1,15 @@
+package br.com.alura.AluraFake.task;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+@IdGeneratorType(BlockIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+@interface BlockId {
+}
@@ -0,0 +1,70 @@
+package br.com.alura.AluraFake.task;
+
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BlockIdGenerator implements IdentifierGenerator {
+
+    static final int BLOCK_SIZE = 50;
+    private static final String ALLOCATE_BLOCK = "INSERT INTO IdBlock (id) VALUES (NULL)";
+    private static final String RELEASE_BLOCK_ROW = "DELETE FROM IdBlock WHERE id = ?";
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long limit;
+
+    // Blocks come from an AUTO_INCREMENT counter on the caller's own connection: the counter is never handed out twice,
+    // even if the caller rolls back, and no second pooled connection is needed while the request holds its own.
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        lock.lock();
+        try {
+            if (next == limit) {
+                next = allocateBlock(session) * BLOCK_SIZE;
+                limit = next + BLOCK_SIZE;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The row only exists to advance the counter, which MySQL 8 persists on its own, so it is deleted straight away.
+    // Touching nothing but its own row keeps the refill from ever waiting on another transaction's locks.
+    private static long allocateBlock(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement allocate = jdbc.getStatementPreparer().prepareStatement(ALLOCATE_BLOCK, Statement.RETURN_GENERATED_KEYS);
+        long block;
+        try {
+            jdbc.getResultSetReturn().executeUpdate(allocate, ALLOCATE_BLOCK);
+            try (ResultSet keys = allocate.getGeneratedKeys()) {
+                keys.next();
+                block = keys.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not allocate id block", ALLOCATE_BLOCK);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(allocate);
+            jdbc.afterStatementExecution();
+        }
+
+        PreparedStatement release = jdbc.getStatementPreparer().prepareStatement(RELEASE_BLOCK_ROW);
+        try {
+            release.setLong(1, block);
+            jdbc.getResultSetReturn().executeUpdate(release, RELEASE_BLOCK_ROW);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not release id block row", RELEASE_BLOCK_ROW);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(release);
+            jdbc.afterStatementExecution();
+        }
+        return block;
+    }
+}
@@ -3,13 +3,11 @@ package br.com.alura.AluraFake.task;
 import jakarta.persistence.*;
 import org.springframework.util.Assert;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
-
 @Entity(name = "Options")
 public class Option {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @BlockId
     private Long id;
 
     @Column(name = "option_text")
@@ -3,8 +3,12 @@ package br.com.alura.AluraFake.task;
 import br.com.alura.AluraFake.course.Course;
 import jakarta.persistence.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 import static jakarta.persistence.DiscriminatorType.STRING;
-import static jakarta.persistence.GenerationType.IDENTITY;
 import static jakarta.persistence.InheritanceType.SINGLE_TABLE;
 
 @Entity
@@ -13,13 +17,19 @@ import static jakarta.persistence.InheritanceType.SINGLE_TABLE;
 public abstract class Task implements Comparable<Task> {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @BlockId
     protected Long id;
 
     @Column(nullable = false, length = 255)
     protected String statement;
 
-    @Column(name = "task_order", nullable = false)
+    @Column(name = "statement_hash", nullable = false, length = 64)
+    protected String statementHash;
+
+    @Column(name = "task_rank", nullable = false)
+    protected Long rank;
+
+    @Transient
     protected Integer order;
 
     @ManyToOne(optional = false)
@@ -34,18 +44,37 @@ public abstract class Task implements Comparable<Task> {
 
     protected Task(String statement, Integer order, Course course, Type type) {
         this.statement = statement;
+        this.statementHash = hashStatement(statement);
         this.order = order;
+        this.rank = TaskRank.of(order);
         this.course = course;
         this.type = type;
     }
 
+    public static String hashStatement(String statement) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(statement.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public void incrementOrder() {
         this.order++;
     }
 
+    public void placeAt(Integer order) {
+        this.order = order;
+    }
+
+    public void rankAt(long rank) {
+        this.rank = rank;
+    }
+
     @Override
     public int compareTo(Task other) {
-        return this.order.compareTo(other.order);
+        return this.rank.compareTo(other.rank);
     }
 
     public String getStatement() {
@@ -56,6 +85,10 @@ public abstract class Task implements Comparable<Task> {
         return order;
     }
 
+    public Long getRank() {
+        return rank;
+    }
+
     public Course getCourse() {
         return course;
     }
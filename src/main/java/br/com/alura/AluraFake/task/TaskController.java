@@ -1,11 +1,18 @@
 package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringDTO;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseSummaryRepository;
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,27 +20,46 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.*;
+
 import static br.com.alura.AluraFake.course.Status.BUILDING;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
 import static org.springframework.http.HttpStatus.CREATED;
 
 @RestController
+@Timed(value = "alurafake.controller", histogram = true)
 public class TaskController {
 
+    private static final String STATEMENT_EQUALS_TITLE_MESSAGE = "The task's statement is the same as the course title.";
+    private static final String DUPLICATED_STATEMENT_MESSAGE = "A task with the same statement already exists for this course.";
+    private static final String ORDER_NOT_INSERTABLE_MESSAGE = "The order has to be in an insertable position.";
+    private static final String STATEMENT_HASH_CONSTRAINT = "UK_TASK_COURSE_STATEMENTHASH";
+
     private final CourseRepository courseRepository;
+    private final TaskRepository taskRepository;
+    private final CourseSummaryRepository courseSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskMetrics taskMetrics;
 
     @Autowired
-    public TaskController(CourseRepository courseRepository) {
+    public TaskController(CourseRepository courseRepository, TaskRepository taskRepository,
+                          CourseSummaryRepository courseSummaryRepository, ApplicationEventPublisher eventPublisher,
+                          TaskMetrics taskMetrics) {
         this.courseRepository = courseRepository;
+        this.taskRepository = taskRepository;
+        this.courseSummaryRepository = courseSummaryRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskMetrics = taskMetrics;
     }
 
     @PostMapping("/task/new/opentext")
     @Transactional
     @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
     public ResponseEntity newOpenTextExercise(@Valid @RequestBody OpenTextTaskDTO openTextTaskDTO) {
-        Course course = getCourseIfPersistedByItsId(openTextTaskDTO.courseId());
-        validateTaskForCourse(course, openTextTaskDTO.statement());
-        course.addOpenTextTask(openTextTaskDTO.statement(), openTextTaskDTO.order());
-        courseRepository.save(course);
+        CourseAuthoringDTO course = getCourseReadyForTask(openTextTaskDTO.courseId(), openTextTaskDTO.statement());
+        insertShiftingSubsequentTasks(course, new OpenTextTask(openTextTaskDTO.statement(), openTextTaskDTO.order(), courseRepository.getReferenceById(course.id())));
         return ResponseEntity.status(CREATED).build();
     }
 
@@ -41,10 +67,8 @@ public class TaskController {
     @Transactional
     @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
     public ResponseEntity newSingleChoiceExercise(@Valid @RequestBody SingleChoiceTaskDTO singleChoiceTaskDTO) {
-        Course course = getCourseIfPersistedByItsId(singleChoiceTaskDTO.courseId());
-        validateTaskForCourse(course, singleChoiceTaskDTO.statement());
-        course.addSingleChoiceTask(singleChoiceTaskDTO.statement(), singleChoiceTaskDTO.order(), singleChoiceTaskDTO.optionsAsEntites());
-        courseRepository.save(course);
+        CourseAuthoringDTO course = getCourseReadyForTask(singleChoiceTaskDTO.courseId(), singleChoiceTaskDTO.statement());
+        insertShiftingSubsequentTasks(course, new SingleChoiceTask(singleChoiceTaskDTO.statement(), singleChoiceTaskDTO.order(), singleChoiceTaskDTO.optionsAsEntites(), courseRepository.getReferenceById(course.id())));
         return ResponseEntity.status(CREATED).build();
     }
 
@@ -52,26 +76,179 @@ public class TaskController {
     @Transactional
     @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
     public ResponseEntity newMultipleChoiceExercise(@Valid @RequestBody MultipleChoiceTaskDTO multipleChoiceTaskDTO) {
-        Course course = getCourseIfPersistedByItsId(multipleChoiceTaskDTO.courseId());
-        validateTaskForCourse(course, multipleChoiceTaskDTO.statement());
-        course.addMultipleChoiceTask(multipleChoiceTaskDTO.statement(), multipleChoiceTaskDTO.order(), multipleChoiceTaskDTO.optionsAsEntites());
-        courseRepository.save(course);
+        CourseAuthoringDTO course = getCourseReadyForTask(multipleChoiceTaskDTO.courseId(), multipleChoiceTaskDTO.statement());
+        insertShiftingSubsequentTasks(course, new MultipleChoiceTask(multipleChoiceTaskDTO.statement(), multipleChoiceTaskDTO.order(), multipleChoiceTaskDTO.optionsAsEntites(), courseRepository.getReferenceById(course.id())));
         return ResponseEntity.status(CREATED).build();
     }
 
-    private Course getCourseIfPersistedByItsId(Long id) {
-        return courseRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Course doesn't exist"));
+    @PostMapping("/task/new/batch")
+    @Transactional
+    @PreAuthorize("hasAuthority('SCOPE_INSTRUCTOR')")
+    public ResponseEntity newTasksBatch(@Valid @RequestBody BatchTaskDTO batchTaskDTO) {
+        CourseAuthoringDTO courseAuthoring = getCourseInBuildingPhase(batchTaskDTO.courseId());
+        Course course = courseRepository.getReferenceById(courseAuthoring.id());
+        List<Task> tasks = new ArrayList<>();
+        List<ErrorItemDTO> errors = validateBatch(courseAuthoring, batchTaskDTO.tasks(), course, tasks);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        rankBatch(courseAuthoring.id(), tasks);
+        rejectingDuplicatedStatements(() -> taskRepository.saveAllAndFlush(tasks));
+        recordInSummary(courseAuthoring.id(), tasks, tasks.stream().mapToLong(Task::getRank).max().getAsLong());
+        courseRepository.touchUpdatedAt(courseAuthoring.id(), LocalDateTime.now());
+        eventPublisher.publishEvent(new TaskCreatedEvent(courseAuthoring.id(), courseAuthoring.instructorId()));
+        tasks.forEach(task -> taskMetrics.created(task.getType()));
+        return ResponseEntity.status(CREATED).build();
     }
 
-    private void validateTaskForCourse(Course course, String statement) {
-        if (!BUILDING.equals(course.getStatus())) {
+    private CourseAuthoringDTO getCourseReadyForTask(Long courseId, String statement) {
+        CourseAuthoringDTO course = getCourseInBuildingPhase(courseId);
+        validateTaskForCourse(course, statement);
+        return course;
+    }
+
+    private CourseAuthoringDTO getCourseInBuildingPhase(Long courseId) {
+        CourseAuthoringDTO course = courseRepository.findAuthoringById(courseId)
+                .orElseThrow(() -> new EntityNotFoundException("Course doesn't exist"));
+        if (!BUILDING.equals(course.status())) {
             throw new IllegalStateException("Course has to be in building phase to allow tasks registrations.");
         }
-        if (course.getTitle().equals(statement)) {
-            throw new IllegalArgumentException("The task's statement is the same as the course title.");
+        return course;
+    }
+
+    private void validateTaskForCourse(CourseAuthoringDTO course, String statement) {
+        if (course.title().equals(statement)) {
+            throw new IllegalArgumentException(STATEMENT_EQUALS_TITLE_MESSAGE);
+        }
+        if (taskRepository.existsByCourseIdAndStatementHash(course.id(), Task.hashStatement(statement))) {
+            throw new EntityExistsException(DUPLICATED_STATEMENT_MESSAGE);
         }
-        if (course.hasAnyTaskWithSameStatement(statement)) {
-            throw new EntityExistsException("A task with the same statement already exists for this course.");
+    }
+
+    private List<ErrorItemDTO> validateBatch(CourseAuthoringDTO courseAuthoring, List<BatchTaskItemDTO> items, Course course, List<Task> tasks) {
+        List<String> hashes = items.stream().map(item -> Task.hashStatement(item.statement())).toList();
+        Set<String> existingHashes = taskRepository.findStatementHashesIn(courseAuthoring.id(), hashes);
+        Set<String> batchHashes = new HashSet<>();
+        long taskCount = taskRepository.countByCourseId(courseAuthoring.id());
+        List<ErrorItemDTO> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchTaskItemDTO item = items.get(i);
+            String field = "tasks[" + i + "]";
+            if (courseAuthoring.title().equals(item.statement())) {
+                errors.add(new ErrorItemDTO(field + ".statement", STATEMENT_EQUALS_TITLE_MESSAGE));
+            } else if (existingHashes.contains(hashes.get(i)) || !batchHashes.add(hashes.get(i))) {
+                errors.add(new ErrorItemDTO(field + ".statement", DUPLICATED_STATEMENT_MESSAGE));
+            }
+            if (item.order() > ++taskCount) {
+                errors.add(new ErrorItemDTO(field + ".order", ORDER_NOT_INSERTABLE_MESSAGE));
+            }
+            try {
+                tasks.add(item.toTask(course));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ErrorItemDTO(field + ".options", e.getMessage()));
+            }
+        }
+        return errors;
+    }
+
+    private void rankBatch(Long courseId, List<Task> tasks) {
+        List<Long> ranks = new ArrayList<>(taskRepository.findRanksByCourseId(courseId));
+        List<Task> rankedTasks = new ArrayList<>(Collections.nCopies(ranks.size(), null));
+        for (Task task : tasks) {
+            int position = task.getOrder() - 1;
+            OptionalLong rank = rankAtPosition(ranks, position);
+            if (rank.isEmpty()) {
+                renormalizeRanks(courseId, ranks, rankedTasks);
+                rank = rankAtPosition(ranks, position);
+            }
+            task.rankAt(rank.getAsLong());
+            ranks.add(position, rank.getAsLong());
+            rankedTasks.add(position, task);
+        }
+    }
+
+    private OptionalLong rankAtPosition(List<Long> ranks, int position) {
+        return TaskRank.between(position > 0 ? ranks.get(position - 1) : 0L, position < ranks.size() ? ranks.get(position) : null);
+    }
+
+    private void renormalizeRanks(Long courseId, List<Long> ranks, List<Task> rankedTasks) {
+        Iterator<Task> persistedTasks = rankedTasks.contains(null)
+                ? taskRepository.findByCourseIdOrderByRank(courseId).iterator()
+                : Collections.emptyIterator();
+        for (int i = 0; i < rankedTasks.size(); i++) {
+            Task task = rankedTasks.get(i) != null ? rankedTasks.get(i) : persistedTasks.next();
+            task.rankAt(TaskRank.of(i + 1));
+            rankedTasks.set(i, task);
+            ranks.set(i, TaskRank.of(i + 1));
         }
+        courseSummaryRepository.recordRenormalizedRanks(courseId, TaskRank.of(rankedTasks.size()));
+    }
+
+    private void insertShiftingSubsequentTasks(CourseAuthoringDTO course, Task task) {
+        Long courseId = course.id();
+        long taskCount = taskRepository.countByCourseId(courseId);
+        if (task.getOrder() > taskCount + 1) {
+            throw new IllegalArgumentException(ORDER_NOT_INSERTABLE_MESSAGE);
+        }
+        OptionalLong rank = rankForOrder(courseId, task.getOrder());
+        if (rank.isEmpty()) {
+            renormalizeRanks(courseId);
+            rank = rankForOrder(courseId, task.getOrder());
+        }
+        task.rankAt(rank.getAsLong());
+        saveRejectingDuplicatedStatement(task);
+        recordInSummary(courseId, List.of(task), task.getRank());
+        courseRepository.touchUpdatedAt(courseId, LocalDateTime.now());
+        eventPublisher.publishEvent(new TaskCreatedEvent(courseId, course.instructorId()));
+        taskMetrics.created(task.getType());
+    }
+
+    private void saveRejectingDuplicatedStatement(Task task) {
+        rejectingDuplicatedStatements(() -> taskRepository.saveAndFlush(task));
+    }
+
+    private void rejectingDuplicatedStatements(Runnable save) {
+        try {
+            save.run();
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicatedStatement(e)) {
+                throw new EntityExistsException(DUPLICATED_STATEMENT_MESSAGE);
+            }
+            throw e;
+        }
+    }
+
+    private boolean isDuplicatedStatement(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String constraintName = violation.getConstraintName();
+                return constraintName.substring(constraintName.lastIndexOf('.') + 1).equalsIgnoreCase(STATEMENT_HASH_CONSTRAINT);
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toUpperCase().contains(STATEMENT_HASH_CONSTRAINT);
+    }
+
+    private OptionalLong rankForOrder(Long courseId, int order) {
+        if (order == 1) {
+            List<Long> ranks = taskRepository.findTwoRanksFrom(courseId, 0);
+            return TaskRank.between(0L, ranks.isEmpty() ? null : ranks.getFirst());
+        }
+        List<Long> ranks = taskRepository.findTwoRanksFrom(courseId, order - 2);
+        return TaskRank.between(ranks.getFirst(), ranks.size() > 1 ? ranks.get(1) : null);
+    }
+
+    private void renormalizeRanks(Long courseId) {
+        List<Task> tasks = taskRepository.findByCourseIdOrderByRank(courseId);
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).rankAt(TaskRank.of(i + 1));
+        }
+        courseSummaryRepository.recordRenormalizedRanks(courseId, TaskRank.of(tasks.size()));
+    }
+
+    private void recordInSummary(Long courseId, List<Task> tasks, long maxRank) {
+        Map<Type, Long> counts = tasks.stream().collect(groupingBy(Task::getType, () -> new EnumMap<>(Type.class), counting()));
+        courseSummaryRepository.recordTasks(courseId, counts.getOrDefault(Type.OPEN_TEXT, 0L).intValue(),
+                counts.getOrDefault(Type.SINGLE_CHOICE, 0L).intValue(), counts.getOrDefault(Type.MULTIPLE_CHOICE, 0L).intValue(), maxRank);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package br.com.alura.AluraFake.task;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class TaskMetrics {
+
+    private final Map<Type, Counter> created = new EnumMap<>(Type.class);
+
+    public TaskMetrics(MeterRegistry meterRegistry) {
+        for (Type type : Type.values()) {
+            created.put(type, Counter.builder("alurafake.task.creations").tag("type", type.name().toLowerCase()).register(meterRegistry));
+        }
+    }
+
+    public void created(Type type) {
+        created.get(type).increment();
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.alura.AluraFake.task;
+
+import java.util.OptionalLong;
+
+public class TaskRank {
+
+    public static final long GAP = 1L << 20;
+
+    public static long of(int order) {
+        return order * GAP;
+    }
+
+    public static OptionalLong between(long before, Long after) {
+        if (after == null) {
+            return OptionalLong.of(before + GAP);
+        }
+        if (after - before < 2) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(before + (after - before) / 2);
+    }
+}
@@ -1,9 +1,28 @@
 package br.com.alura.AluraFake.task;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    boolean existsByCourseIdAndStatementHash(Long courseId, String statementHash);
+
+    long countByCourseId(Long courseId);
+
+    @Query("select t.rank from Task t where t.course.id = :courseId order by t.rank limit 2 offset :offset")
+    List<Long> findTwoRanksFrom(Long courseId, int offset);
+
+    @Query("select t.rank from Task t where t.course.id = :courseId order by t.rank")
+    List<Long> findRanksByCourseId(Long courseId);
+
+    @Query("select t.statementHash from Task t where t.course.id = :courseId and t.statementHash in :statementHashes")
+    Set<String> findStatementHashesIn(Long courseId, Collection<String> statementHashes);
+
+    List<Task> findByCourseIdOrderByRank(Long courseId);
 }
@@ -1,20 +1,31 @@
 package br.com.alura.AluraFake.user;
 
+import br.com.alura.AluraFake.util.CollectionVersions;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.*;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+import static br.com.alura.AluraFake.util.VersionedCollection.USERS;
+
 @RestController
+@Timed(value = "alurafake.controller", histogram = true)
 public class UserController {
 
     private final UserRepository userRepository;
+    private final CollectionVersions collectionVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, CollectionVersions collectionVersions, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.collectionVersions = collectionVersions;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -26,12 +37,17 @@ public class UserController {
         }
         User user = newUser.toModel();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(user.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @GetMapping("/user/all")
-    public List<UserListItemDTO> listAllUsers() {
-        return userRepository.findAll().stream().map(UserListItemDTO::new).toList();
+    public List<UserListItemDTO> listAllUsers(WebRequest request) {
+        CollectionVersions.Version version = collectionVersions.current(USERS);
+        if (request.checkNotModified(version.eTag(null), version.lastModified())) {
+            return null;
+        }
+        return userRepository.findAllListItems();
     }
 
 }
@@ -0,0 +1,18 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.outbox.OutboxMessage;
+import br.com.alura.AluraFake.util.CollectionChangedEvent;
+import br.com.alura.AluraFake.util.VersionedCollection;
+
+public record UserCreatedEvent(Long userId) implements CollectionChangedEvent, OutboxMessage {
+
+    @Override
+    public VersionedCollection collection() {
+        return VersionedCollection.USERS;
+    }
+
+    @Override
+    public String orderingKey() {
+        return "user-" + userId;
+    }
+}
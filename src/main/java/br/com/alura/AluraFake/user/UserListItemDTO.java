@@ -8,10 +8,10 @@ public class UserListItemDTO implements Serializable {
     private String email;
     private Role role;
 
-    public UserListItemDTO(User user) {
-        this.name = user.getName();
-        this.email = user.getEmail();
-        this.role = user.getRole();
+    public UserListItemDTO(String name, String email, Role role) {
+        this.name = name;
+        this.email = email;
+        this.role = role;
     }
 
     public String getName() {
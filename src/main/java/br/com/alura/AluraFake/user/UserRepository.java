@@ -2,7 +2,9 @@ package br.com.alura.AluraFake.user;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -10,4 +12,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("select new br.com.alura.AluraFake.user.UserListItemDTO(u.name, u.email, u.role) from User u")
+    List<UserListItemDTO> findAllListItems();
 }
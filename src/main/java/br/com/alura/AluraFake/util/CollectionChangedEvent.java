@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.util;
+
+public interface CollectionChangedEvent {
+
+    VersionedCollection collection();
+}
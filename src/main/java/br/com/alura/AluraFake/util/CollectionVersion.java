@@ -0,0 +1,18 @@
+package br.com.alura.AluraFake.util;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+public class CollectionVersion {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private VersionedCollection collection;
+    private long counter;
+    private LocalDateTime lastModified;
+
+    @Deprecated
+    public CollectionVersion() {}
+}
@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.util;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, VersionedCollection> {
+
+    @Query("select new br.com.alura.AluraFake.util.CollectionVersions$Version(v.counter, v.lastModified) from CollectionVersion v where v.collection = :collection")
+    Optional<CollectionVersions.Version> findVersion(VersionedCollection collection);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update CollectionVersion v set v.counter = v.counter + 1, v.lastModified = :lastModified where v.collection = :collection")
+    int bump(VersionedCollection collection, LocalDateTime lastModified);
+}
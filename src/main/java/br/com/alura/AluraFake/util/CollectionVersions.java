@@ -0,0 +1,83 @@
+package br.com.alura.AluraFake.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static java.time.ZoneOffset.UTC;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.springframework.transaction.event.TransactionPhase.BEFORE_COMMIT;
+
+@Component
+public class CollectionVersions {
+
+    private static final Object CHANGED_IN_TRANSACTION = new Object();
+
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final Clock clock;
+
+    @Autowired
+    public CollectionVersions(CollectionVersionRepository collectionVersionRepository) {
+        this(collectionVersionRepository, Clock.systemUTC());
+    }
+
+    CollectionVersions(CollectionVersionRepository collectionVersionRepository, Clock clock) {
+        this.collectionVersionRepository = collectionVersionRepository;
+        this.clock = clock;
+    }
+
+    public Version current(VersionedCollection collection) {
+        return collectionVersionRepository.findVersion(collection)
+                .orElseThrow(() -> new IllegalStateException("Missing version row for " + collection));
+    }
+
+    // The row is bumped inside the writing transaction, after its changes are flushed, so every instance sees the new
+    // version exactly when the data commits and the version row is always the last lock a writer takes.
+    public void changed(VersionedCollection collection) {
+        collectionVersionRepository.bump(collection, LocalDateTime.now(clock).truncatedTo(SECONDS));
+    }
+
+    @TransactionalEventListener(phase = BEFORE_COMMIT, fallbackExecution = true)
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        if (firstChangeInTransaction(event.collection())) {
+            changed(event.collection());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean firstChangeInTransaction(VersionedCollection collection) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return true;
+        }
+        Set<VersionedCollection> changed = (Set<VersionedCollection>) TransactionSynchronizationManager.getResource(CHANGED_IN_TRANSACTION);
+        if (changed == null) {
+            changed = EnumSet.noneOf(VersionedCollection.class);
+            TransactionSynchronizationManager.bindResource(CHANGED_IN_TRANSACTION, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_IN_TRANSACTION);
+                }
+            });
+        }
+        return changed.add(collection);
+    }
+
+    public record Version(long counter, long lastModified) {
+
+        public Version(long counter, LocalDateTime lastModified) {
+            this(counter, lastModified.toInstant(UTC).toEpochMilli());
+        }
+
+        public String eTag(String acceptEncoding) {
+            return "\"%d%s\"".formatted(counter, JsonBytes.acceptsGzip(acceptEncoding) ? "-gzip" : "");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.alura.AluraFake.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+public record JsonBytes(byte[] json, byte[] gzipped) {
+
+    private static final int GZIP_THRESHOLD = 1024;
+
+    public static JsonBytes of(ObjectMapper objectMapper, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new JsonBytes(json, json.length >= GZIP_THRESHOLD ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int size() {
+        return json.length + (gzipped == null ? 0 : gzipped.length);
+    }
+
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+        return toResponse(ResponseEntity.ok(), acceptEncoding);
+    }
+
+    public ResponseEntity<byte[]> toResponse(ResponseEntity.BodyBuilder response, String acceptEncoding) {
+        response.contentType(APPLICATION_JSON).header(VARY, ACCEPT_ENCODING);
+        if (gzipped != null && acceptsGzip(acceptEncoding)) {
+            return response.header(CONTENT_ENCODING, "gzip").body(gzipped);
+        }
+        return response.body(json);
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].strip().toLowerCase(Locale.ROOT);
+            double quality = quality(parameters);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        double quality = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        return quality > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].strip();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).strip());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
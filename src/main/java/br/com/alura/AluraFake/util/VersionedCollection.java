@@ -0,0 +1,5 @@
+package br.com.alura.AluraFake.util;
+
+public enum VersionedCollection {
+    COURSES, USERS
+}
@@ -0,0 +1,13 @@
+CREATE TABLE OutboxEvent (
+    id bigint(20) NOT NULL AUTO_INCREMENT,
+    createdAt datetime(6) NOT NULL,
+    orderingKey varchar(100) NOT NULL,
+    type varchar(255) NOT NULL,
+    payload text NOT NULL,
+    attempts int NOT NULL DEFAULT 0,
+    lastError varchar(500),
+    dispatchedAt datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+CREATE INDEX IX_OutboxEvent_DispatchedAt ON OutboxEvent (dispatchedAt, id);
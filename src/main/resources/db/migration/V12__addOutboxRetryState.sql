@@ -0,0 +1,4 @@
+ALTER TABLE OutboxEvent ADD COLUMN nextAttemptAt datetime(6);
+ALTER TABLE OutboxEvent ADD COLUMN parkedAt datetime(6);
+
+CREATE INDEX IX_OutboxEvent_OrderingKey ON OutboxEvent (orderingKey, id);
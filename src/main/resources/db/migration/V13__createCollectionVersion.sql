@@ -0,0 +1,9 @@
+CREATE TABLE CollectionVersion (
+    collection VARCHAR(32) NOT NULL,
+    counter bigint(20) NOT NULL,
+    lastModified datetime NOT NULL,
+    PRIMARY KEY (collection)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+INSERT INTO CollectionVersion (collection, counter, lastModified) VALUES ('COURSES', 0, '2000-01-01 00:00:00');
+INSERT INTO CollectionVersion (collection, counter, lastModified) VALUES ('USERS', 0, '2000-01-01 00:00:00');
@@ -0,0 +1,9 @@
+ALTER TABLE Task ADD COLUMN task_rank BIGINT NULL;
+
+UPDATE Task SET task_rank = task_order * 1048576;
+
+ALTER TABLE Task MODIFY COLUMN task_rank BIGINT NOT NULL;
+
+CREATE INDEX IX_Task_Course_Rank ON Task (course_id, task_rank);
+
+ALTER TABLE Task DROP COLUMN task_order;
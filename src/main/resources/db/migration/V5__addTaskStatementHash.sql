@@ -0,0 +1,7 @@
+ALTER TABLE Task ADD COLUMN statement_hash CHAR(64) NULL;
+
+UPDATE Task SET statement_hash = SHA2(statement, 256);
+
+ALTER TABLE Task MODIFY COLUMN statement_hash CHAR(64) NOT NULL;
+
+CREATE UNIQUE INDEX UK_Task_Course_StatementHash ON Task (course_id, statement_hash);
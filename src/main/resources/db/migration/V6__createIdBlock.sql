@@ -0,0 +1,11 @@
+CREATE TABLE IdBlock (
+    id bigint(20) NOT NULL AUTO_INCREMENT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+INSERT INTO IdBlock (id)
+SELECT FLOOR(GREATEST(
+           (SELECT COALESCE(MAX(id), 0) FROM Task),
+           (SELECT COALESCE(MAX(id), 0) FROM Options)) / 50) + 1;
+
+DELETE FROM IdBlock;
@@ -0,0 +1,7 @@
+ALTER TABLE Course ADD COLUMN updatedAt datetime(6) NULL;
+
+UPDATE Course SET updatedAt = COALESCE(publishedAt, createdAt);
+
+ALTER TABLE Course MODIFY COLUMN updatedAt datetime(6) NOT NULL;
+
+CREATE INDEX IX_Course_UpdatedAt ON Course (updatedAt, id);
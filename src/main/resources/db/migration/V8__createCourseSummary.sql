@@ -0,0 +1,22 @@
+CREATE TABLE course_summary (
+    course_id bigint(20) NOT NULL,
+    task_count int NOT NULL DEFAULT 0,
+    open_text_count int NOT NULL DEFAULT 0,
+    single_choice_count int NOT NULL DEFAULT 0,
+    multiple_choice_count int NOT NULL DEFAULT 0,
+    distinct_rank_count int NOT NULL DEFAULT 0,
+    max_rank bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (course_id),
+    CONSTRAINT FK_CourseSummary_Course FOREIGN KEY (course_id) REFERENCES Course(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+INSERT INTO course_summary (course_id, task_count, open_text_count, single_choice_count, multiple_choice_count, distinct_rank_count, max_rank)
+SELECT c.id,
+       COUNT(t.id),
+       SUM(CASE WHEN t.type = 'OPEN_TEXT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.type = 'SINGLE_CHOICE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.type = 'MULTIPLE_CHOICE' THEN 1 ELSE 0 END),
+       COUNT(DISTINCT t.task_rank),
+       COALESCE(MAX(t.task_rank), 0)
+FROM Course c LEFT JOIN Task t ON t.course_id = c.id
+GROUP BY c.id;
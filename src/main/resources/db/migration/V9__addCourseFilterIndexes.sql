@@ -0,0 +1,3 @@
+CREATE INDEX IX_Course_Status_PublishedAt ON Course (status, publishedAt);
+
+CREATE INDEX IX_Course_Instructor_CreatedAt ON Course (instructor_id, createdAt);
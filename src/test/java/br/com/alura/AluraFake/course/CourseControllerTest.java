@@ -1,37 +1,76 @@
 package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.security.SecurityConfig;
-import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.task.Type;
 import br.com.alura.AluraFake.user.User;
 import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.util.CollectionVersions;
+import br.com.alura.AluraFake.util.JsonBytes;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static br.com.alura.AluraFake.util.VersionedCollection.COURSES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CourseCatalogCache.class})
 @WebMvcTest(CourseController.class)
+@RecordApplicationEvents
 class CourseControllerTest {
 
+    private static final long LAST_MODIFIED = 1_735_725_600_000L;
+
     @Autowired
     private MockMvc mockMvc;
     @MockBean
     private UserRepository userRepository;
     @MockBean
     private CourseRepository courseRepository;
+    @MockBean
+    private PublishedCourseCache publishedCourseCache;
+    @MockBean
+    private CourseSearchIndex courseSearchIndex;
+    @MockBean
+    private CourseTitleAutocomplete courseTitleAutocomplete;
+    @MockBean
+    private CoursePublishMetrics publishMetrics;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+    @MockBean
+    private CollectionVersions collectionVersions;
+
+    @BeforeEach
+    void setUp() {
+        courseCatalogCache.pages().invalidateAll();
+        when(collectionVersions.current(COURSES)).thenReturn(new CollectionVersions.Version(1, LAST_MODIFIED));
+    }
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -90,22 +129,22 @@ class CourseControllerTest {
                 .andExpect(status().isCreated());
 
         verify(courseRepository, times(1)).save(any(Course.class));
+        assertThat(applicationEvents.stream(CourseCreatedEvent.class)).hasSize(1);
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void listAllCourses__should_list_all_courses() throws Exception {
-        User paulo = new User("Paulo", "paulo@alua.com.br", Role.INSTRUCTOR);
+        CourseListItemDTO java = new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, 0);
+        CourseListItemDTO hibernate = new CourseListItemDTO(2L, "Hibernate", "Curso de hibernate", Status.BUILDING, 0);
+        CourseListItemDTO spring = new CourseListItemDTO(3L, "Spring", "Curso de spring", Status.BUILDING, 0);
 
-        Course java = new Course("Java", "Curso de java", paulo);
-        Course hibernate = new Course("Hibernate", "Curso de hibernate", paulo);
-        Course spring = new Course("Spring", "Curso de spring", paulo);
-
-        when(courseRepository.findAll()).thenReturn(Arrays.asList(java, hibernate, spring));
+        when(courseRepository.findListItemsAfter(0L, Limit.of(100))).thenReturn(Arrays.asList(java, hibernate, spring));
 
         mockMvc.perform(get("/course/all")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$[0].title").value("Java"))
                 .andExpect(jsonPath("$[0].description").value("Curso de java"))
                 .andExpect(jsonPath("$[1].title").value("Hibernate"))
@@ -114,48 +153,229 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[2].description").value("Curso de spring"));
     }
 
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllCourses__should_return_next_cursor_when_page_is_full() throws Exception {
+        CourseListItemDTO java = new CourseListItemDTO(7L, "Java", "Curso de java", Status.BUILDING, 0);
+        CourseListItemDTO spring = new CourseListItemDTO(9L, "Spring", "Curso de spring", Status.PUBLISHED, 0);
+
+        when(courseRepository.findListItemsAfter(5L, Limit.of(2))).thenReturn(Arrays.asList(java, spring));
+
+        mockMvc.perform(get("/course/all")
+                        .param("after", "5")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "</course/all?after=9&size=2>; rel=\"next\""))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[1].id").value(9));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllCourses__should_cap_page_size() throws Exception {
+        mockMvc.perform(get("/course/all")
+                        .param("size", "100000"))
+                .andExpect(status().isOk());
+
+        verify(courseRepository).findListItemsAfter(0L, Limit.of(500));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllCourses__should_serve_repeated_pages_from_pre_serialized_bytes_until_the_catalog_version_changes() throws Exception {
+        when(courseRepository.findListItemsAfter(0L, Limit.of(100))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, 0)));
+
+        mockMvc.perform(get("/course/all")).andExpect(jsonPath("$[0].title").value("Java"));
+        mockMvc.perform(get("/course/all")).andExpect(jsonPath("$[0].title").value("Java"));
+        verify(courseRepository, times(1)).findListItemsAfter(0L, Limit.of(100));
+
+        when(collectionVersions.current(COURSES)).thenReturn(new CollectionVersions.Version(2, LAST_MODIFIED));
+        mockMvc.perform(get("/course/all")).andExpect(status().isOk());
+        verify(courseRepository, times(2)).findListItemsAfter(0L, Limit.of(100));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllCourses__should_return_not_modified_without_querying_when_etag_matches() throws Exception {
+        when(courseRepository.findListItemsAfter(0L, Limit.of(100))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, 0)));
+
+        String eTag = mockMvc.perform(get("/course/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(courseRepository);
+        courseCatalogCache.pages().invalidateAll();
+
+        mockMvc.perform(get("/course/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllCourses__should_return_new_etag_and_fresh_page_after_collection_changes() throws Exception {
+        when(courseRepository.findListItemsAfter(0L, Limit.of(100))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, 0)));
+        String eTag = mockMvc.perform(get("/course/all"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        when(collectionVersions.current(COURSES)).thenReturn(new CollectionVersions.Version(2, LAST_MODIFIED));
+        when(courseRepository.findListItemsAfter(0L, Limit.of(100))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.PUBLISHED, 0)));
+
+        String newETag = mockMvc.perform(get("/course/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("PUBLISHED"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllCourses__should_use_distinct_etags_for_gzip_and_identity_representations() throws Exception {
+        when(courseRepository.findListItemsAfter(0L, Limit.of(100))).thenReturn(List.of());
+
+        String identity = mockMvc.perform(get("/course/all"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzip = mockMvc.perform(get("/course/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(identity).startsWith("\"").doesNotStartWith("W/");
+        assertThat(gzip).isNotEqualTo(identity);
+        mockMvc.perform(get("/course/all").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void filterCourses__should_reject_pages_past_the_maximum_offset_instead_of_overflowing() throws Exception {
+        mockMvc.perform(get("/course/filter?page=2147483647&size=500"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/course/filter?page=201&size=500"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void filterCourses__should_apply_sort_and_page_and_link_to_the_next_page() throws Exception {
+        when(courseRepository.findListItems(any(), eq(CourseSort.PUBLISHED_AT_DESC.toSort()), eq(4), eq(2))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.PUBLISHED, 3),
+                new CourseListItemDTO(2L, "Spring", "Curso de spring", Status.PUBLISHED, 5)));
+
+        mockMvc.perform(get("/course/filter?status=PUBLISHED&publishedFrom=2025-01-01T00:00:00&sort=PUBLISHED_AT_DESC&page=2&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].taskCount").value(5))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "</course/filter?status=PUBLISHED&publishedFrom=2025-01-01T00:00:00&sort=PUBLISHED_AT_DESC&page=3&size=2>; rel=\"next\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void filterCourses__should_default_to_id_order_without_next_link_on_last_page() throws Exception {
+        when(courseRepository.findListItems(any(), eq(CourseSort.ID.toSort()), eq(0), eq(100))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, 0)));
+
+        mockMvc.perform(get("/course/filter").param("instructorId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void filterCourses__should_return_bad_request_when_sort_is_unknown() throws Exception {
+        mockMvc.perform(get("/course/filter").param("sort", "TITLE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listCourseChanges__should_return_changes_after_watermark_with_resumable_cursor() throws Exception {
+        LocalDateTime since = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 10, 5, 30, 123456000);
+        when(courseRepository.findChangesAfter(eq(since), eq(7L), any(LocalDateTime.class), eq(Limit.of(2)))).thenReturn(List.of(
+                new CourseChangeDTO(8L, "Java", "Curso de java", Status.PUBLISHED, updatedAt, updatedAt)));
+
+        mockMvc.perform(get("/course/changes")
+                        .param("since", "2025-01-01T10:00:00")
+                        .param("after", "7")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(8))
+                .andExpect(jsonPath("$[0].status").value("PUBLISHED"))
+                .andExpect(header().string(HttpHeaders.LINK, "</course/changes?since=2025-01-01T10:05:30.123456&after=8&size=2>; rel=\"next\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listCourseChanges__should_keep_cursor_when_nothing_changed() throws Exception {
+        when(courseRepository.findChangesAfter(any(LocalDateTime.class), anyLong(), any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+
+        mockMvc.perform(get("/course/changes").param("since", "2025-01-01T10:05:30.123456").param("after", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+        verify(courseRepository).findChangesAfter(eq(LocalDateTime.of(2025, 1, 1, 10, 5, 30, 123456000)), eq(8L),
+                argThat(until -> until.isBefore(LocalDateTime.now())), eq(Limit.of(100)));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void streamAllCourses__should_write_all_courses_as_json_array() throws Exception {
+        when(courseRepository.streamAllListItems()).thenReturn(Stream.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, 0),
+                new CourseListItemDTO(2L, "Spring", "Curso de spring", Status.PUBLISHED, 0)));
+
+        mockMvc.perform(get("/course/all/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Java"))
+                .andExpect(jsonPath("$[1].status").value("PUBLISHED"));
+    }
+
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void publishCourse__should_return_not_found_when_course_does_not_exist() throws Exception {
-        doReturn(Optional.empty()).when(courseRepository).findById(42L);
+        doReturn(Optional.empty()).when(courseRepository).findPublicationById(42L);
 
         mockMvc.perform(post("/course/42/publish"))
                 .andExpect(status().isNotFound());
+        verify(publishMetrics).rejected(PublishRejection.NOT_FOUND);
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void publishCourse__should_return_bad_request_when_course_status_is_not_building() throws Exception {
-        Course courseMock = mock(Course.class);
-        doReturn(Optional.of(courseMock)).when(courseRepository).findById(42L);
-        doReturn(true).when(courseMock).isPublished();
+        doReturn(Optional.of(new CoursePublicationDTO(42L, 7L, Status.PUBLISHED, 3, 3, 3))).when(courseRepository).findPublicationById(42L);
 
         mockMvc.perform(post("/course/42/publish"))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Course must be in BUILDING status to be published."));
+        verify(courseRepository, never()).publishIfBuilding(anyLong(), any());
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void publishCourse__should_return_bad_request_when_course_has_missing_task_types() throws Exception {
-        Course courseMock = mock(Course.class);
-        doReturn(Optional.of(courseMock)).when(courseRepository).findById(42L);
-        doReturn(false).when(courseMock).isPublished();
-        doReturn(false).when(courseMock).hasAllTypeOfTasks();
+        doReturn(Optional.of(new CoursePublicationDTO(42L, 7L, Status.BUILDING, 2, 5, 5))).when(courseRepository).findPublicationById(42L);
 
         mockMvc.perform(post("/course/42/publish"))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Course must have at least one task of each type."));
+        verify(publishMetrics).rejected(PublishRejection.MISSING_TASK_TYPES);
+        verify(publishMetrics, never()).published();
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void publishCourse__should_return_bad_request_when_course_has_non_continuous_order() throws Exception {
-        Course courseMock = mock(Course.class);
-        doReturn(Optional.of(courseMock)).when(courseRepository).findById(42L);
-        doReturn(false).when(courseMock).isPublished();
-        doReturn(true).when(courseMock).hasAllTypeOfTasks();
-        doReturn(false).when(courseMock).hasAllTasksInValidOrder();
+        doReturn(Optional.of(new CoursePublicationDTO(42L, 7L, Status.BUILDING, 3, 4, 3))).when(courseRepository).findPublicationById(42L);
 
         mockMvc.perform(post("/course/42/publish"))
                 .andExpect(status().isBadRequest())
@@ -165,16 +385,202 @@ class CourseControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void publishCourse__should_publish_course_when_valid() throws Exception {
-        Course courseMock = mock(Course.class);
-        doReturn(Optional.of(courseMock)).when(courseRepository).findById(42L);
-        doReturn(false).when(courseMock).isPublished();
-        doReturn(true).when(courseMock).hasAllTypeOfTasks();
-        doReturn(true).when(courseMock).hasAllTasksInValidOrder();
+        doReturn(Optional.of(new CoursePublicationDTO(42L, 7L, Status.BUILDING, 3, 4, 4))).when(courseRepository).findPublicationById(42L);
+        doReturn(1).when(courseRepository).publishIfBuilding(eq(42L), any());
 
         mockMvc.perform(post("/course/42/publish"))
                 .andExpect(status().isOk());
 
-        verify(courseMock, times(1)).publish();
-        verify(courseRepository, times(1)).save(any(Course.class));
+        verify(courseRepository, never()).findById(anyLong());
+        verify(publishMetrics).published();
+        assertThat(applicationEvents.stream(CoursePublishedEvent.class)).containsExactly(new CoursePublishedEvent(42L, 7L));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void publishCourse__should_return_bad_request_when_a_concurrent_request_published_first() throws Exception {
+        doReturn(Optional.of(new CoursePublicationDTO(42L, 7L, Status.BUILDING, 3, 4, 4))).when(courseRepository).findPublicationById(42L);
+        doReturn(0).when(courseRepository).publishIfBuilding(eq(42L), any());
+
+        mockMvc.perform(post("/course/42/publish"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Course must be in BUILDING status to be published."));
+        verify(publishMetrics).rejected(PublishRejection.NOT_BUILDING);
+        verify(publishMetrics, never()).published();
+        assertThat(applicationEvents.stream(CoursePublishedEvent.class)).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void publishCourses__should_publish_eligible_courses_with_one_update_and_report_every_failing_rule() throws Exception {
+        doReturn(List.of(
+                new CoursePublicationDTO(1L, 7L, Status.BUILDING, 3, 4, 4),
+                new CoursePublicationDTO(2L, 7L, Status.PUBLISHED, 3, 3, 3),
+                new CoursePublicationDTO(3L, 7L, Status.BUILDING, 1, 1, 1),
+                new CoursePublicationDTO(4L, 7L, Status.BUILDING, 3, 4, 3),
+                new CoursePublicationDTO(5L, 7L, Status.BUILDING, 3, 3, 3)))
+                .when(courseRepository).findPublicationsByIdIn(List.of(1L, 2L, 3L, 4L, 5L, 6L));
+        when(courseRepository.publishAllIfBuilding(eq(List.of(1L, 5L)), any())).thenReturn(2);
+
+        mockMvc.perform(post("/course/publish/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchPublishDTO(List.of(1L, 2L, 3L, 4L, 5L, 6L, 1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(6))
+                .andExpect(jsonPath("$[0].courseId").value(1))
+                .andExpect(jsonPath("$[0].published").value(true))
+                .andExpect(jsonPath("$[1].message").value("Course must be in BUILDING status to be published."))
+                .andExpect(jsonPath("$[2].message").value("Course must have at least one task of each type."))
+                .andExpect(jsonPath("$[3].message").value("Course must have all tasks in continuous order."))
+                .andExpect(jsonPath("$[4].published").value(true))
+                .andExpect(jsonPath("$[5].published").value(false))
+                .andExpect(jsonPath("$[5].message").value("Course doesn't exist"));
+
+        verify(courseRepository).lockByIdIn(List.of(1L, 2L, 3L, 4L, 5L, 6L));
+        verify(courseRepository, times(1)).publishAllIfBuilding(eq(List.of(1L, 5L)), any());
+        verify(courseRepository, never()).publishIfBuilding(anyLong(), any());
+        verify(publishMetrics, times(2)).published();
+        verify(publishMetrics).rejected(PublishRejection.NOT_BUILDING);
+        verify(publishMetrics).rejected(PublishRejection.MISSING_TASK_TYPES);
+        verify(publishMetrics).rejected(PublishRejection.NON_CONTINUOUS_ORDER);
+        verify(publishMetrics).rejected(PublishRejection.NOT_FOUND);
+        assertThat(applicationEvents.stream(CoursePublishedEvent.class))
+                .containsExactly(new CoursePublishedEvent(1L, 7L), new CoursePublishedEvent(5L, 7L));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void publishCourses__should_fail_the_batch_when_the_update_misses_an_eligible_course() throws Exception {
+        doReturn(List.of(
+                new CoursePublicationDTO(1L, 7L, Status.BUILDING, 3, 3, 3),
+                new CoursePublicationDTO(2L, 7L, Status.BUILDING, 3, 3, 3)))
+                .when(courseRepository).findPublicationsByIdIn(List.of(1L, 2L));
+        when(courseRepository.publishAllIfBuilding(eq(List.of(1L, 2L)), any())).thenReturn(1);
+
+        mockMvc.perform(post("/course/publish/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchPublishDTO(List.of(1L, 2L)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Some courses changed while the batch was being published; nothing was published."));
+
+        verify(publishMetrics, never()).published();
+        assertThat(applicationEvents.stream(CoursePublishedEvent.class)).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void publishCourses__should_not_update_when_no_course_is_eligible() throws Exception {
+        doReturn(List.of(new CoursePublicationDTO(1L, 7L, Status.PUBLISHED, 3, 3, 3)))
+                .when(courseRepository).findPublicationsByIdIn(List.of(1L));
+
+        mockMvc.perform(post("/course/publish/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchPublishDTO(List.of(1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].published").value(false));
+
+        verify(courseRepository, never()).publishAllIfBuilding(any(), any());
+        assertThat(applicationEvents.stream(CoursePublishedEvent.class)).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void publishCourses__should_return_bad_request_when_course_ids_are_empty() throws Exception {
+        mockMvc.perform(post("/course/publish/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchPublishDTO(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].field").value("courseIds"));
+    }
+
+    @Test
+    @WithMockUser
+    void getCourse__should_return_not_found_when_course_does_not_exist() throws Exception {
+        when(publishedCourseCache.get(42L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/course/42"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void getCourse__should_return_ordered_task_tree_with_options() throws Exception {
+        CourseDetailDTO course = new CourseDetailDTO(42L, "Java", "Curso de Java", Status.BUILDING, "Paulo", "paulo@alura.com.br", null)
+                .withTasks(List.of(
+                        new CourseTaskRowDTO(7L, Type.OPEN_TEXT, "Open task", 1024L, null, null),
+                        new CourseTaskRowDTO(9L, Type.SINGLE_CHOICE, "Single task", 2048L, "Java", true),
+                        new CourseTaskRowDTO(9L, Type.SINGLE_CHOICE, "Single task", 2048L, "Python", false)));
+        when(publishedCourseCache.get(42L)).thenReturn(Optional.of(new CourseSnapshot(course, JsonBytes.of(objectMapper, course))));
+
+        mockMvc.perform(get("/course/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Java"))
+                .andExpect(jsonPath("$.instructorName").value("Paulo"))
+                .andExpect(jsonPath("$.tasks.length()").value(2))
+                .andExpect(jsonPath("$.tasks[0].id").value(7))
+                .andExpect(jsonPath("$.tasks[0].order").value(1))
+                .andExpect(jsonPath("$.tasks[0].options").isEmpty())
+                .andExpect(jsonPath("$.tasks[1].type").value("SINGLE_CHOICE"))
+                .andExpect(jsonPath("$.tasks[1].order").value(2))
+                .andExpect(jsonPath("$.tasks[1].options[0].option").value("Java"))
+                .andExpect(jsonPath("$.tasks[1].options[0].isCorrect").value(true))
+                .andExpect(jsonPath("$.tasks[1].options[1].option").value("Python"));
+    }
+
+    @Test
+    @WithMockUser
+    void getCourse__should_return_pre_gzipped_bytes_when_client_accepts_gzip() throws Exception {
+        List<CourseTaskRowDTO> rows = IntStream.rangeClosed(1, 30)
+                .mapToObj(i -> new CourseTaskRowDTO((long) i, Type.OPEN_TEXT, "Open task number " + i, i * 1024L, null, null))
+                .toList();
+        CourseDetailDTO course = new CourseDetailDTO(42L, "Java", "Curso de Java", Status.PUBLISHED, "Paulo", "paulo@alura.com.br", null)
+                .withTasks(rows);
+        when(publishedCourseCache.get(42L)).thenReturn(Optional.of(new CourseSnapshot(course, JsonBytes.of(objectMapper, course))));
+
+        byte[] body = mockMvc.perform(get("/course/42").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(objectMapper.readTree(json).get("tasks").size()).isEqualTo(30);
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void searchCourses__should_return_ranked_matches_from_the_index_with_a_bounded_size() throws Exception {
+        doReturn(List.of(new CourseSearchResultDTO(1L, "Introdução ao Java", Status.PUBLISHED, 2.5),
+                new CourseSearchResultDTO(2L, "Spring", Status.BUILDING, 0.7)))
+                .when(courseSearchIndex).search("introducao java", 100);
+
+        mockMvc.perform(get("/course/search?q=introducao java&size=1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Introdução ao Java"))
+                .andExpect(jsonPath("$[0].status").value("PUBLISHED"))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void searchCourses__should_return_bad_request_without_query() throws Exception {
+        mockMvc.perform(get("/course/search"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseSearchIndex);
+    }
+
+    @Test
+    @WithMockUser
+    void autocompleteCourses__should_pass_status_filter_and_bounded_size() throws Exception {
+        doReturn(List.of(new CourseTitleDTO(1L, "Java", Status.PUBLISHED), new CourseTitleDTO(2L, "JavaScript", Status.PUBLISHED)))
+                .when(courseTitleAutocomplete).complete("jav", Status.PUBLISHED, 50);
+
+        mockMvc.perform(get("/course/autocomplete?prefix=jav&status=PUBLISHED&size=500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Java"))
+                .andExpect(jsonPath("$[1].title").value("JavaScript"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.alura.AluraFake.course.CourseFilterRepositoryTest$LastStatement")
+@ActiveProfiles("test")
+class CourseFilterRepositoryTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User paulo;
+    private User maria;
+
+    @BeforeEach
+    void setUp() {
+        paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        maria = userRepository.save(new User("Maria", "maria@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    @Test
+    void findListItems__should_combine_every_given_filter_and_sort() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+        Course kotlin = courseRepository.save(new Course("Kotlin", "Curso de kotlin", maria));
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE Course SET status = 'PUBLISHED', publishedAt = ? WHERE id = ?", JANUARY.plusDays(3), java.getId());
+        jdbcTemplate.update("UPDATE Course SET status = 'PUBLISHED', publishedAt = ? WHERE id = ?", JANUARY.plusDays(9), spring.getId());
+        jdbcTemplate.update("UPDATE Course SET status = 'PUBLISHED', publishedAt = ? WHERE id = ?", FEBRUARY.plusDays(1), kotlin.getId());
+        entityManager.clear();
+
+        CourseFilter januaryPublished = new CourseFilter(null, Status.PUBLISHED, null, null, JANUARY, FEBRUARY, null);
+        assertThat(courseRepository.findListItems(CourseSpecifications.matching(januaryPublished), CourseSort.PUBLISHED_AT_DESC.toSort(), 0, 10))
+                .extracting(CourseListItemDTO::getTitle).containsExactly("Spring", "Java");
+
+        CourseFilter byMaria = new CourseFilter(maria.getId(), null, null, null, null, null, null);
+        assertThat(courseRepository.findListItems(CourseSpecifications.matching(byMaria), CourseSort.ID.toSort(), 0, 10))
+                .extracting(CourseListItemDTO::getTitle).containsExactly("Kotlin");
+
+        CourseFilter everything = new CourseFilter(null, null, null, null, null, null, null);
+        assertThat(courseRepository.findListItems(CourseSpecifications.matching(everything), CourseSort.ID.toSort(), 1, 1))
+                .extracting(CourseListItemDTO::getTitle).containsExactly("Spring");
+    }
+
+    @Test
+    void findListItems__should_use_status_and_publishedAt_index() {
+        CourseFilter filter = new CourseFilter(null, Status.PUBLISHED, null, null, JANUARY, FEBRUARY, null);
+
+        courseRepository.findListItems(CourseSpecifications.matching(filter), CourseSort.PUBLISHED_AT_DESC.toSort(), 0, 10);
+
+        assertThat(plan(LastStatement.sql, "PUBLISHED", JANUARY, FEBRUARY, 0, 10)).containsIgnoringCase("IX_Course_Status_PublishedAt");
+    }
+
+    @Test
+    void findListItems__should_use_instructor_and_createdAt_index() {
+        CourseFilter filter = new CourseFilter(paulo.getId(), null, JANUARY, FEBRUARY, null, null, null);
+
+        courseRepository.findListItems(CourseSpecifications.matching(filter), CourseSort.CREATED_AT_DESC.toSort(), 0, 10);
+
+        assertThat(plan(LastStatement.sql, paulo.getId(), JANUARY, FEBRUARY, 0, 10)).containsIgnoringCase("IX_Course_Instructor_CreatedAt");
+    }
+
+    private String plan(String sql, Object... parameters) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        return rows.toString();
+    }
+
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select")) {
+                LastStatement.sql = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.infra.DataSeeder;
+import br.com.alura.AluraFake.outbox.OutboxRepository;
+import br.com.alura.AluraFake.task.Option;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static br.com.alura.AluraFake.infra.SqlStatementCountMatchers.sqlStatementsAtMost;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"alurafake.sql-statements.response-header=true", "alurafake.outbox.poll-interval=PT1H"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CourseQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @MockBean
+    private DataSeeder dataSeeder;
+
+    private User instructor;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        instructor = userRepository.save(new User("Budget", "course-budget@alura.com.br", Role.INSTRUCTOR));
+        Course java = new Course("Java", "Curso de java", instructor);
+        java.addOpenTextTask("Open task", 1);
+        java.addSingleChoiceTask("Single task", 2, List.of(new Option("Java", true), new Option("Python", false)));
+        java.addMultipleChoiceTask("Multiple task", 3, List.of(new Option("Java", true), new Option("Kotlin", true), new Option("Python", false)));
+        course = courseRepository.save(java);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createCourse__should_stay_within_its_query_budget() throws Exception {
+        mockMvc.perform(post("/course/new")
+                        .with(instructor())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Kotlin\", \"description\": \"Curso de kotlin\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(sqlStatementsAtMost(5));
+    }
+
+    @Test
+    void publishCourse__should_stay_within_its_query_budget() throws Exception {
+        mockMvc.perform(post("/course/{id}/publish", course.getId()).with(instructor()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(4));
+    }
+
+    @Test
+    void getCourse__should_load_once_and_then_be_served_without_statements() throws Exception {
+        mockMvc.perform(post("/course/{id}/publish", course.getId()).with(instructor()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/course/{id}", course.getId()).with(instructor()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(2));
+        mockMvc.perform(get("/course/{id}", course.getId()).with(instructor()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(0));
+    }
+
+    @Test
+    void filterCourses__should_stay_within_its_query_budget() throws Exception {
+        mockMvc.perform(get("/course/filter?instructorId={id}", instructor.getId()).with(instructor()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1));
+    }
+
+    @Test
+    void listAllCourses__should_stay_within_its_query_budget() throws Exception {
+        mockMvc.perform(get("/course/all").with(instructor()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(2));
+    }
+
+    private RequestPostProcessor instructor() {
+        return jwt().jwt(token -> token.subject(instructor.getId().toString()))
+                .authorities(new SimpleGrantedAuthority("SCOPE_INSTRUCTOR"));
+    }
+}
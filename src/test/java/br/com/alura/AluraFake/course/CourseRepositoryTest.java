@@ -0,0 +1,222 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.instructor.InstructorStatsRowDTO;
+import br.com.alura.AluraFake.task.Option;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CourseRepositoryTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User paulo;
+
+    @BeforeEach
+    void setUp() {
+        paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    @Test
+    void findListItemsAfter__should_return_next_page_after_cursor() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course hibernate = courseRepository.save(new Course("Hibernate", "Curso de hibernate", paulo));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+
+        List<CourseListItemDTO> firstPage = courseRepository.findListItemsAfter(0L, Limit.of(2));
+        assertThat(firstPage).extracting(CourseListItemDTO::getId).containsExactly(java.getId(), hibernate.getId());
+        assertThat(firstPage.getFirst().getTitle()).isEqualTo("Java");
+        assertThat(firstPage.getFirst().getStatus()).isEqualTo(Status.BUILDING);
+
+        List<CourseListItemDTO> secondPage = courseRepository.findListItemsAfter(hibernate.getId(), Limit.of(2));
+        assertThat(secondPage).extracting(CourseListItemDTO::getId).containsExactly(spring.getId());
+
+        assertThat(courseRepository.findListItemsAfter(spring.getId(), Limit.of(2))).isEmpty();
+    }
+
+    @Test
+    void streamAllListItems__should_stream_every_course_ordered_by_id() {
+        courseRepository.save(new Course("Java", "Curso de java", paulo));
+        courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+
+        try (Stream<CourseListItemDTO> courses = courseRepository.streamAllListItems()) {
+            assertThat(courses.toList())
+                    .extracting(CourseListItemDTO::getTitle)
+                    .containsExactly("Java", "Spring");
+        }
+    }
+
+    @Test
+    void findAuthoringById__should_return_only_status_and_title() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+
+        assertThat(courseRepository.findAuthoringById(java.getId()))
+                .contains(new CourseAuthoringDTO(java.getId(), paulo.getId(), "Java", Status.BUILDING));
+        assertThat(courseRepository.findAuthoringById(java.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    void findDetailById_and_findTaskRowsByCourseId__should_load_the_task_tree_in_two_statements_whatever_the_task_count() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        for (int i = 1; i <= 30; i++) {
+            java.addMultipleChoiceTask("Task " + i, i, List.of(new Option("Option A", true), new Option("Option B", true), new Option("Option C", false)));
+        }
+        java.addOpenTextTask("Open task", 1);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CourseDetailDTO detail = courseRepository.findDetailById(java.getId()).orElseThrow()
+                .withTasks(courseRepository.findTaskRowsByCourseId(java.getId()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(detail.instructorEmail()).isEqualTo("paulo@alura.com.br");
+        assertThat(detail.tasks()).hasSize(31);
+        assertThat(detail.tasks().getFirst().statement()).isEqualTo("Open task");
+        assertThat(detail.tasks().getFirst().options()).isEmpty();
+        assertThat(detail.tasks().get(1).statement()).isEqualTo("Task 1");
+        assertThat(detail.tasks().get(1).order()).isEqualTo(2);
+        assertThat(detail.tasks().get(1).options()).extracting(CourseTaskOptionDTO::option)
+                .containsExactly("Option A", "Option B", "Option C");
+        assertThat(detail.tasks().getLast().order()).isEqualTo(31);
+    }
+
+    @Test
+    void findChangesAfter__should_page_changes_by_updatedAt_and_id_up_to_the_settled_watermark() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+        Course hibernate = courseRepository.save(new Course("Hibernate", "Curso de hibernate", paulo));
+        Course kotlin = courseRepository.save(new Course("Kotlin", "Curso de kotlin", paulo));
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        courseRepository.touchUpdatedAt(java.getId(), base.plusSeconds(1));
+        courseRepository.touchUpdatedAt(spring.getId(), base.plusSeconds(2));
+        courseRepository.touchUpdatedAt(hibernate.getId(), base.plusSeconds(2));
+        courseRepository.touchUpdatedAt(kotlin.getId(), base.plusSeconds(10));
+        entityManager.clear();
+        LocalDateTime until = base.plusSeconds(5);
+
+        List<CourseChangeDTO> firstPage = courseRepository.findChangesAfter(base, 0L, until, Limit.of(2));
+        assertThat(firstPage).extracting(CourseChangeDTO::id).containsExactly(java.getId(), spring.getId());
+
+        CourseChangeDTO cursor = firstPage.getLast();
+        assertThat(courseRepository.findChangesAfter(cursor.updatedAt(), cursor.id(), until, Limit.of(2)))
+                .extracting(CourseChangeDTO::id).containsExactly(hibernate.getId());
+        assertThat(courseRepository.findChangesAfter(base.plusSeconds(2), hibernate.getId(), until, Limit.of(2))).isEmpty();
+        assertThat(courseRepository.findChangesAfter(base.plusSeconds(2), hibernate.getId(), base.plusSeconds(10), Limit.of(2)))
+                .extracting(CourseChangeDTO::id).containsExactly(kotlin.getId());
+    }
+
+    @Test
+    void findPublicationById__should_read_readiness_from_the_summary_in_one_statement() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course empty = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+        java.addOpenTextTask("Open task", 1);
+        java.addSingleChoiceTask("Single task", 2, List.of(new Option("Java", true), new Option("Python", false)));
+        java.addMultipleChoiceTask("Multiple task", 3, List.of(new Option("Java", true), new Option("Kotlin", true), new Option("Ruby", false)));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CoursePublicationDTO publication = courseRepository.findPublicationById(java.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(publication).isEqualTo(new CoursePublicationDTO(java.getId(), paulo.getId(), Status.BUILDING, 3, 3, 3));
+        assertThat(publication.hasAllTypeOfTasks()).isTrue();
+        assertThat(publication.hasAllTasksInValidOrder()).isTrue();
+        assertThat(courseRepository.findPublicationById(empty.getId())).contains(new CoursePublicationDTO(empty.getId(), paulo.getId(), Status.BUILDING, 0, 0, 0));
+        assertThat(courseRepository.findPublicationById(empty.getId() + 100)).isEmpty();
+    }
+
+    @Test
+    void publishIfBuilding__should_flip_status_only_once() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        entityManager.flush();
+        LocalDateTime publishedAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        assertThat(courseRepository.publishIfBuilding(java.getId(), publishedAt)).isEqualTo(1);
+        assertThat(courseRepository.publishIfBuilding(java.getId(), publishedAt.plusMinutes(1))).isZero();
+
+        entityManager.clear();
+        Course published = courseRepository.findById(java.getId()).orElseThrow();
+        assertThat(published.getStatus()).isEqualTo(Status.PUBLISHED);
+        assertThat(published.getPublishedAt()).isEqualTo(publishedAt);
+        assertThat(published.getUpdatedAt()).isEqualTo(publishedAt);
+    }
+
+    @Test
+    void findPublicationsByIdIn_and_publishAllIfBuilding__should_work_on_many_courses_at_once() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+        Course published = courseRepository.save(new Course("Kotlin", "Curso de kotlin", paulo));
+        java.addOpenTextTask("Open task", 1);
+        published.publish();
+        entityManager.flush();
+        List<Long> ids = List.of(java.getId(), spring.getId(), published.getId());
+
+        assertThat(courseRepository.lockByIdIn(ids)).containsExactlyElementsOf(ids);
+        assertThat(courseRepository.findPublicationsByIdIn(ids)).containsExactlyInAnyOrder(
+                new CoursePublicationDTO(java.getId(), paulo.getId(), Status.BUILDING, 1, 1, 1),
+                new CoursePublicationDTO(spring.getId(), paulo.getId(), Status.BUILDING, 0, 0, 0),
+                new CoursePublicationDTO(published.getId(), paulo.getId(), Status.PUBLISHED, 0, 0, 0));
+
+        assertThat(courseRepository.publishAllIfBuilding(ids, LocalDateTime.now())).isEqualTo(2);
+        entityManager.clear();
+        assertThat(courseRepository.findAllById(ids)).extracting(Course::getStatus).containsOnly(Status.PUBLISHED);
+    }
+
+    @Test
+    void findInstructorStats__should_group_courses_and_task_counts_by_status_for_one_instructor() {
+        User maria = userRepository.save(new User("Maria", "maria@alura.com.br", Role.INSTRUCTOR));
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+        Course kotlin = courseRepository.save(new Course("Kotlin", "Curso de kotlin", paulo));
+        Course other = courseRepository.save(new Course("Ruby", "Curso de ruby", maria));
+        java.addOpenTextTask("Open task", 1);
+        java.addSingleChoiceTask("Single task", 2, List.of(new Option("Java", true), new Option("Python", false)));
+        kotlin.addOpenTextTask("Kotlin task", 1);
+        kotlin.addMultipleChoiceTask("Multiple task", 2, List.of(new Option("Java", true), new Option("Kotlin", true), new Option("Ruby", false)));
+        kotlin.publish();
+        other.addOpenTextTask("Ruby task", 1);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<InstructorStatsRowDTO> rows = courseRepository.findInstructorStats(paulo.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(rows).containsExactlyInAnyOrder(
+                new InstructorStatsRowDTO(Status.BUILDING, 2L, 1L, 1L, 0L),
+                new InstructorStatsRowDTO(Status.PUBLISHED, 1L, 1L, 0L, 1L));
+        assertThat(courseRepository.findInstructorStats(maria.getId()))
+                .containsExactly(new InstructorStatsRowDTO(Status.BUILDING, 1L, 1L, 0L, 0L));
+        assertThat(courseRepository.findInstructorStats(maria.getId() + 100)).isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.outbox.OutboxDispatcher;
+import br.com.alura.AluraFake.outbox.OutboxRepository;
+import br.com.alura.AluraFake.outbox.OutboxWriter;
+import br.com.alura.AluraFake.task.Option;
+import br.com.alura.AluraFake.task.TaskCreatedEvent;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+@DataJpaTest(properties = "alurafake.outbox.poll-interval=PT1H")
+@AutoConfigureJson
+@ActiveProfiles("test")
+@Import({CourseSearchIndex.class, OutboxWriter.class, OutboxDispatcher.class})
+@Transactional(propagation = NOT_SUPPORTED)
+class CourseSearchIndexTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CourseSearchIndex listeningIndex;
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    private CourseSearchIndex courseSearchIndex;
+    private TransactionTemplate transaction;
+    private User paulo;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        courseSearchIndex = new CourseSearchIndex(courseRepository, transactionManager);
+        paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rebuild__should_index_titles_descriptions_and_task_statements_with_accent_folding() {
+        Course java = new Course("Introdução ao Java", "Orientação a objetos", paulo);
+        java.addOpenTextTask("Explique herança e polimorfismo", 1);
+        java.addSingleChoiceTask("Qual palavra declara uma classe?", 2, List.of(new Option("class", true), new Option("def", false)));
+        Long javaId = courseRepository.save(java).getId();
+        Long springId = courseRepository.save(new Course("Spring", "Injeção de dependências com Java", paulo)).getId();
+
+        courseSearchIndex.rebuild();
+
+        assertThat(courseSearchIndex.size()).isEqualTo(2);
+        assertThat(courseSearchIndex.search("INTRODUCAO", 10)).extracting(CourseSearchResultDTO::id).containsExactly(javaId);
+        assertThat(courseSearchIndex.search("heranca", 10)).extracting(CourseSearchResultDTO::id).containsExactly(javaId);
+        assertThat(courseSearchIndex.search("injecao", 10)).extracting(CourseSearchResultDTO::id).containsExactly(springId);
+        assertThat(courseSearchIndex.search("java", 10)).extracting(CourseSearchResultDTO::id).containsExactly(javaId, springId);
+        assertThat(courseSearchIndex.search("java", 1)).hasSize(1);
+        assertThat(courseSearchIndex.search("kotlin", 10)).isEmpty();
+        assertThat(courseSearchIndex.search("de", 10)).isEmpty();
+    }
+
+    @Test
+    void search__should_rank_courses_matching_more_and_rarer_terms_first() {
+        Long javaId = courseRepository.save(new Course("Java", "Coleções e streams", paulo)).getId();
+        Long streamsId = courseRepository.save(new Course("Streams reativos", "Java com Reactor", paulo)).getId();
+        courseRepository.save(new Course("Kotlin", "Corrotinas na JVM", paulo));
+        courseSearchIndex.rebuild();
+
+        assertThat(courseSearchIndex.search("java streams reactor", 10))
+                .extracting(CourseSearchResultDTO::id).containsExactly(streamsId, javaId);
+    }
+
+    @Test
+    void events__should_update_the_index_incrementally_once_dispatched_from_the_outbox() {
+        Long courseId = transaction.execute(status -> {
+            Course course = courseRepository.save(new Course("Python", "Curso de python", paulo));
+            eventPublisher.publishEvent(new CourseCreatedEvent(course.getId(), paulo.getId()));
+            return course.getId();
+        });
+        assertThat(listeningIndex.search("python", 10)).isEmpty();
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningIndex.search("python", 10)).extracting(CourseSearchResultDTO::status).containsExactly(Status.BUILDING);
+
+        transaction.executeWithoutResult(status -> {
+            courseRepository.findById(courseId).orElseThrow().addOpenTextTask("Explique list comprehensions", 1);
+            eventPublisher.publishEvent(new TaskCreatedEvent(courseId, paulo.getId()));
+        });
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningIndex.search("comprehensions", 10)).extracting(CourseSearchResultDTO::id).containsExactly(courseId);
+
+        transaction.executeWithoutResult(status -> {
+            courseRepository.findById(courseId).orElseThrow().publish();
+            eventPublisher.publishEvent(new CoursePublishedEvent(courseId, paulo.getId()));
+        });
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningIndex.search("python", 10)).extracting(CourseSearchResultDTO::status).containsExactly(Status.PUBLISHED);
+        assertThat(listeningIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void events__should_index_a_course_published_before_the_rebuild_reaches_it() {
+        Long courseId = transaction.execute(status -> {
+            Course course = courseRepository.save(new Course("Elixir", "Curso de elixir", paulo));
+            course.publish();
+            eventPublisher.publishEvent(new CoursePublishedEvent(course.getId(), paulo.getId()));
+            return course.getId();
+        });
+
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningIndex.search("elixir", 10)).extracting(CourseSearchResultDTO::status).containsExactly(Status.PUBLISHED);
+
+        listeningIndex.rebuild();
+        assertThat(listeningIndex.search("elixir", 10)).extracting(CourseSearchResultDTO::id).containsExactly(courseId);
+    }
+
+    @Test
+    void events__should_be_ignored_when_the_transaction_rolls_back() {
+        transaction.executeWithoutResult(status -> {
+            Course course = courseRepository.save(new Course("Haskell", "Curso de haskell", paulo));
+            eventPublisher.publishEvent(new CourseCreatedEvent(course.getId(), paulo.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+        assertThat(listeningIndex.search("haskell", 10)).isEmpty();
+    }
+}
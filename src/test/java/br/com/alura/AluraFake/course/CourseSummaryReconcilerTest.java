@@ -0,0 +1,99 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Option;
+import br.com.alura.AluraFake.task.TaskRank;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.util.CollectionVersions;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static br.com.alura.AluraFake.util.VersionedCollection.COURSES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "alurafake.course-summary.reconcile-chunk-size=2")
+@ActiveProfiles("test")
+@Import({CourseSummaryReconciler.class, CollectionVersions.class})
+class CourseSummaryReconcilerTest {
+
+    @Autowired
+    private CourseSummaryReconciler courseSummaryReconciler;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private CourseSummaryRepository courseSummaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    private User paulo;
+
+    @BeforeEach
+    void setUp() {
+        paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    @Test
+    void recordTasks_and_recordRenormalizedRanks__should_update_counters_without_reading_the_row() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        entityManager.flush();
+
+        courseSummaryRepository.recordTasks(java.getId(), 2, 1, 0, TaskRank.of(3));
+        courseSummaryRepository.recordTasks(java.getId(), 0, 0, 1, TaskRank.of(1));
+        courseSummaryRepository.recordRenormalizedRanks(java.getId(), TaskRank.of(4));
+        entityManager.clear();
+
+        CourseSummary summary = courseSummaryRepository.findById(java.getId()).orElseThrow();
+        assertThat(summary.getTaskCount()).isEqualTo(4);
+        assertThat(summary.getOpenTextCount()).isEqualTo(2);
+        assertThat(summary.getSingleChoiceCount()).isEqualTo(1);
+        assertThat(summary.getMultipleChoiceCount()).isEqualTo(1);
+        assertThat(summary.getDistinctRankCount()).isEqualTo(4);
+        assertThat(summary.getMaxRank()).isEqualTo(TaskRank.of(4));
+    }
+
+    @Test
+    void reconcileAll__should_rebuild_drifted_and_missing_summaries_from_tasks_in_chunks() {
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de spring", paulo));
+        Course kotlin = courseRepository.save(new Course("Kotlin", "Curso de kotlin", paulo));
+        java.addOpenTextTask("Open task", 1);
+        java.addMultipleChoiceTask("Multiple task", 2, List.of(new Option("Java", true), new Option("Kotlin", true), new Option("Ruby", false)));
+        kotlin.addOpenTextTask("Open task", 1);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE course_summary SET task_count = 7, open_text_count = 0 WHERE course_id = ?", java.getId());
+        jdbcTemplate.update("DELETE FROM course_summary WHERE course_id = ?", kotlin.getId());
+        entityManager.clear();
+        long version = collectionVersions.current(COURSES).counter();
+
+        assertThat(courseSummaryReconciler.reconcileAll()).isEqualTo(2);
+        entityManager.flush();
+        entityManager.clear();
+
+        CourseSummary javaSummary = courseSummaryRepository.findById(java.getId()).orElseThrow();
+        assertThat(javaSummary.getTaskCount()).isEqualTo(2);
+        assertThat(javaSummary.getOpenTextCount()).isEqualTo(1);
+        assertThat(javaSummary.getMultipleChoiceCount()).isEqualTo(1);
+        assertThat(javaSummary.getMaxRank()).isEqualTo(TaskRank.of(2));
+        assertThat(courseSummaryRepository.findById(spring.getId()).orElseThrow().getTaskCount()).isZero();
+        assertThat(courseSummaryRepository.findById(kotlin.getId()).orElseThrow().getOpenTextCount()).isEqualTo(1);
+        assertThat(collectionVersions.current(COURSES).counter()).isGreaterThan(version);
+        long repairedVersion = collectionVersions.current(COURSES).counter();
+        assertThat(courseSummaryReconciler.reconcileAll()).isZero();
+        assertThat(collectionVersions.current(COURSES).counter()).isEqualTo(repairedVersion);
+    }
+}
@@ -545,6 +545,55 @@ class CourseTest {
         assertFalse(course.hasAllTasksInValidOrder());
     }
 
+    @Test
+    void addOpenTextTask_should_only_rank_the_new_task_when_inserting_in_middle() {
+        course.addOpenTextTask("Task 1", 1);
+        course.addOpenTextTask("Task 2", 2);
+        course.addOpenTextTask("New Task", 2);
+
+        assertEquals(TaskRank.of(1), course.getTasks().get(0).getRank());
+        assertEquals(TaskRank.of(1) + TaskRank.GAP / 2, course.getTasks().get(1).getRank());
+        assertEquals(TaskRank.of(2), course.getTasks().get(2).getRank());
+    }
+
+    @Test
+    void addOpenTextTask_should_renormalize_ranks_when_gap_runs_out() {
+        course.addOpenTextTask("Task 0", 1);
+        for (int i = 1; i <= 25; i++) {
+            course.addOpenTextTask("Task " + i, 1);
+        }
+
+        List<Task> tasks = course.getTasks();
+        assertEquals(26, tasks.size());
+        assertEquals("Task 25", tasks.getFirst().getStatement());
+        assertEquals("Task 0", tasks.getLast().getStatement());
+        for (int i = 1; i < tasks.size(); i++) {
+            assertTrue(tasks.get(i - 1).getRank() < tasks.get(i).getRank());
+            assertEquals(i + 1, tasks.get(i).getOrder());
+        }
+    }
+
+    @Test
+    void getTasks_should_derive_orders_from_ranks_when_tasks_are_loaded_without_order() throws Exception {
+        Task first = new OpenTextTask("Task 1", 1, course);
+        Task second = new OpenTextTask("Task 2", 1, course);
+        first.rankAt(10L);
+        second.rankAt(20L);
+        first.placeAt(null);
+        second.placeAt(null);
+
+        Field tasksField = course.getClass().getDeclaredField("tasks");
+        tasksField.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        List<Task> tasksList = (List<Task>) tasksField.get(course);
+        tasksList.addAll(List.of(second, first));
+
+        assertEquals("Task 1", course.getTasks().get(0).getStatement());
+        assertEquals(1, course.getTasks().get(0).getOrder());
+        assertEquals(2, course.getTasks().get(1).getOrder());
+        assertTrue(course.hasAllTasksInValidOrder());
+    }
+
     @Test
     void publish_should_set_status_to_published_and_set_publishedAt_when_course_is_published() {
         assertEquals(BUILDING, course.getStatus());
@@ -554,5 +603,30 @@ class CourseTest {
 
         assertEquals(PUBLISHED, course.getStatus());
         assertNotNull(course.getPublishedAt());
+        assertEquals(course.getPublishedAt(), course.getUpdatedAt());
+    }
+
+    @Test
+    void addTask_should_keep_summary_counters_in_step_with_tasks() {
+        course.addOpenTextTask("Task 1", 1);
+        course.addSingleChoiceTask("Task 2", 2, List.of(new Option("Java", true), new Option("Python", false)));
+        course.addOpenTextTask("Task 0", 1);
+
+        CourseSummary summary = course.getSummary();
+        assertEquals(3, summary.getTaskCount());
+        assertEquals(2, summary.getOpenTextCount());
+        assertEquals(1, summary.getSingleChoiceCount());
+        assertEquals(0, summary.getMultipleChoiceCount());
+        assertEquals(3, summary.getDistinctRankCount());
+        assertEquals(course.getTasks().getLast().getRank(), summary.getMaxRank());
+    }
+
+    @Test
+    void addOpenTextTask_should_advance_updatedAt() {
+        assertEquals(course.getCreatedAt(), course.getUpdatedAt());
+
+        course.addOpenTextTask("Task 1", 1);
+
+        assertFalse(course.getUpdatedAt().isBefore(course.getCreatedAt()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.outbox.OutboxDispatcher;
+import br.com.alura.AluraFake.outbox.OutboxRepository;
+import br.com.alura.AluraFake.outbox.OutboxWriter;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+@DataJpaTest(properties = "alurafake.outbox.poll-interval=PT1H")
+@AutoConfigureJson
+@ActiveProfiles("test")
+@Import({CourseTitleAutocomplete.class, OutboxWriter.class, OutboxDispatcher.class})
+@Transactional(propagation = NOT_SUPPORTED)
+class CourseTitleAutocompleteTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CourseTitleAutocomplete listeningAutocomplete;
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    private User paulo;
+
+    @BeforeEach
+    void setUp() {
+        paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void complete__should_return_accent_folded_prefix_matches_in_title_order() {
+        courseRepository.save(new Course("Kotlin", "Curso de kotlin", paulo));
+        Course javaScript = courseRepository.save(new Course("JavaScript", "Curso de javascript", paulo));
+        Course java = courseRepository.save(new Course("Java", "Curso de java", paulo));
+        Course programacao = courseRepository.save(new Course("Programação Funcional", "Curso de FP", paulo));
+        java.publish();
+        courseRepository.save(java);
+        CourseTitleAutocomplete autocomplete = new CourseTitleAutocomplete(courseRepository, transactionManager);
+
+        autocomplete.rebuild();
+
+        assertThat(autocomplete.size()).isEqualTo(4);
+        assertThat(autocomplete.complete("JAV", null, 10)).extracting(CourseTitleDTO::id).containsExactly(java.getId(), javaScript.getId());
+        assertThat(autocomplete.complete("jav", null, 1)).extracting(CourseTitleDTO::title).containsExactly("Java");
+        assertThat(autocomplete.complete("jav", Status.BUILDING, 10)).extracting(CourseTitleDTO::id).containsExactly(javaScript.getId());
+        assertThat(autocomplete.complete("programacao f", null, 10)).extracting(CourseTitleDTO::id).containsExactly(programacao.getId());
+        assertThat(autocomplete.complete("python", null, 10)).isEmpty();
+        assertThat(autocomplete.complete("  ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void complete__should_rank_exact_and_shorter_titles_before_longer_ones() {
+        Long longest = courseRepository.save(new Course("Java para Iniciantes", "Curso de java", paulo)).getId();
+        Long javaScript = courseRepository.save(new Course("JavaScript", "Curso de javascript", paulo)).getId();
+        Long java = courseRepository.save(new Course("Java", "Curso de java", paulo)).getId();
+        Long javaEe = courseRepository.save(new Course("Java EE", "Curso de java ee", paulo)).getId();
+        CourseTitleAutocomplete autocomplete = new CourseTitleAutocomplete(courseRepository, transactionManager);
+        autocomplete.rebuild();
+
+        assertThat(autocomplete.complete("java", null, 10)).extracting(CourseTitleDTO::id).containsExactly(java, javaEe, javaScript, longest);
+        assertThat(autocomplete.complete("java", null, 2)).extracting(CourseTitleDTO::id).containsExactly(java, javaEe);
+        assertThat(autocomplete.complete("javas", null, 2)).extracting(CourseTitleDTO::id).containsExactly(javaScript);
+    }
+
+    @Test
+    void events__should_add_created_courses_and_update_status_once_dispatched_from_the_outbox() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long courseId = transaction.execute(status -> {
+            Course course = courseRepository.save(new Course("Spring Boot", "Curso de spring", paulo));
+            eventPublisher.publishEvent(new CourseCreatedEvent(course.getId(), paulo.getId()));
+            return course.getId();
+        });
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningAutocomplete.complete("spring", Status.BUILDING, 10)).extracting(CourseTitleDTO::id).containsExactly(courseId);
+
+        transaction.executeWithoutResult(status -> {
+            courseRepository.findById(courseId).orElseThrow().publish();
+            eventPublisher.publishEvent(new CoursePublishedEvent(courseId, paulo.getId()));
+        });
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningAutocomplete.complete("spring", Status.BUILDING, 10)).isEmpty();
+        assertThat(listeningAutocomplete.complete("spring", Status.PUBLISHED, 10)).extracting(CourseTitleDTO::id).containsExactly(courseId);
+
+        transaction.executeWithoutResult(status -> {
+            Course course = courseRepository.save(new Course("Spring Data", "Curso de spring data", paulo));
+            eventPublisher.publishEvent(new CourseCreatedEvent(course.getId(), paulo.getId()));
+            status.setRollbackOnly();
+        });
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningAutocomplete.complete("spring", null, 10)).hasSize(1);
+    }
+
+    @Test
+    void events__should_add_a_course_published_before_the_rebuild_reaches_it() {
+        Long courseId = new TransactionTemplate(transactionManager).execute(status -> {
+            Course course = courseRepository.save(new Course("Elixir", "Curso de elixir", paulo));
+            course.publish();
+            eventPublisher.publishEvent(new CoursePublishedEvent(course.getId(), paulo.getId()));
+            return course.getId();
+        });
+
+        outboxDispatcher.dispatchPending();
+        assertThat(listeningAutocomplete.complete("elixir", Status.PUBLISHED, 10)).extracting(CourseTitleDTO::id).containsExactly(courseId);
+
+        listeningAutocomplete.rebuild();
+        assertThat(listeningAutocomplete.complete("elixir", null, 10)).extracting(CourseTitleDTO::status).containsExactly(Status.PUBLISHED);
+    }
+
+    @Test
+    void events__should_keep_titles_sorted_when_courses_are_created_one_at_a_time() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Long> ids = new ArrayList<>();
+        for (String title : List.of("Rust Avançado", "Rails", "Ruby", "React", "Rust")) {
+            ids.add(transaction.execute(status -> {
+                Course course = courseRepository.save(new Course(title, "Curso de " + title, paulo));
+                eventPublisher.publishEvent(new CourseCreatedEvent(course.getId(), paulo.getId()));
+                return course.getId();
+            }));
+        }
+        outboxDispatcher.dispatchPending();
+
+        assertThat(listeningAutocomplete.complete("r", Status.BUILDING, 10)).extracting(CourseTitleDTO::title)
+                .containsExactly("Ruby", "Rust", "Rails", "React", "Rust Avançado");
+        assertThat(listeningAutocomplete.complete("rust", null, 10)).extracting(CourseTitleDTO::id)
+                .containsExactly(ids.get(4), ids.get(0));
+    }
+}
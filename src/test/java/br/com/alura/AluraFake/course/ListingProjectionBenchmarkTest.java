@@ -0,0 +1,111 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.user.UserListItemDTO;
+import br.com.alura.AluraFake.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Opt-in: mvn test -Dtest=ListingProjectionBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=100000]
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ListingProjectionBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int INSTRUCTORS = Math.max(1, ROWS / 100);
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        jdbcTemplate.batchUpdate("INSERT INTO User (name, email, role, password) VALUES (?, ?, 'INSTRUCTOR', '123456')",
+                IntStream.range(0, INSTRUCTORS).mapToObj(i -> new Object[]{"Instructor " + i, "instructor" + i + "@alura.com.br"}).toList());
+        Long firstInstructorId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM User", Long.class);
+        jdbcTemplate.batchUpdate("INSERT INTO Course (title, description, instructor_id, status) VALUES (?, ?, ?, 'BUILDING')",
+                IntStream.range(0, ROWS).mapToObj(i -> new Object[]{"Course " + i, "Description " + i, firstInstructorId + i % INSTRUCTORS}).toList());
+    }
+
+    @Test
+    void course_listing_projection_should_issue_one_statement_and_allocate_less_than_entities() {
+        Measurement entities = measure(() -> courseRepository.findAll().stream()
+                .map(course -> new CourseListItemDTO(course.getId(), course.getTitle(), course.getDescription(), course.getStatus(), 0))
+                .toList());
+        Measurement projection = measure(() -> {
+            try (Stream<CourseListItemDTO> courses = courseRepository.streamAllListItems()) {
+                return courses.toList();
+            }
+        });
+
+        report("course", entities, projection);
+        assertThat(projection.rows()).isEqualTo(entities.rows());
+        assertThat(projection.statements()).isEqualTo(1);
+        assertThat(projection.allocatedBytes()).isLessThan(entities.allocatedBytes());
+    }
+
+    @Test
+    void user_listing_projection_should_allocate_less_than_entities() {
+        Measurement entities = measure(() -> userRepository.findAll().stream()
+                .map(user -> new UserListItemDTO(user.getName(), user.getEmail(), user.getRole()))
+                .toList());
+        Measurement projection = measure(() -> userRepository.findAllListItems());
+
+        report("user", entities, projection);
+        assertThat(projection.statements()).isEqualTo(1);
+        assertThat(projection.allocatedBytes()).isLessThan(entities.allocatedBytes());
+    }
+
+    private Measurement measure(Supplier<List<?>> listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        int rows = listing.get().size();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long statements = statistics.getPrepareStatementCount();
+        long managedEntities = statistics.getEntityLoadCount();
+        entityManager.clear();
+        return new Measurement(rows, statements, managedEntities, allocated, elapsedMillis);
+    }
+
+    private void report(String listing, Measurement entities, Measurement projection) {
+        System.out.printf("%s listing (%d rows)%n  entities:   %s%n  projection: %s%n", listing, entities.rows(), entities, projection);
+    }
+
+    private record Measurement(int rows, long statements, long managedEntities, long allocatedBytes, long elapsedMillis) {
+    }
+}
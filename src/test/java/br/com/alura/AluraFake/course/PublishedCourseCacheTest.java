@@ -0,0 +1,139 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.outbox.OutboxDispatcher;
+import br.com.alura.AluraFake.outbox.OutboxRepository;
+import br.com.alura.AluraFake.outbox.OutboxWriter;
+import br.com.alura.AluraFake.task.Option;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "alurafake.outbox.poll-interval=PT1H"})
+@ActiveProfiles("test")
+@AutoConfigureJson
+@Import({PublishedCourseCache.class, OutboxWriter.class, OutboxDispatcher.class})
+@Transactional(propagation = NOT_SUPPORTED)
+class PublishedCourseCacheTest {
+
+    @Autowired
+    private PublishedCourseCache publishedCourseCache;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    private TransactionTemplate transaction;
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        User paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        Course java = new Course("Java", "Curso de java", paulo);
+        java.addOpenTextTask("Open task", 1);
+        java.addSingleChoiceTask("Single task", 2, List.of(new Option("Java", true), new Option("Python", false)));
+        java.addMultipleChoiceTask("Multiple task", 3, List.of(new Option("Java", true), new Option("Kotlin", true), new Option("Python", false)));
+        courseId = courseRepository.save(java).getId();
+        publishedCourseCache.snapshots().invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void get__should_not_cache_courses_still_in_building() {
+        assertThat(publishedCourseCache.get(courseId)).isPresent();
+
+        assertThat(publishedCourseCache.snapshots().getIfPresent(courseId)).isNull();
+    }
+
+    @Test
+    void publishing__should_cache_an_immutable_snapshot_after_commit_and_serve_it_without_statements() {
+        publish(courseId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CourseSnapshot cached = publishedCourseCache.get(courseId).orElseThrow();
+        CourseDetailDTO snapshot = cached.course();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(new String(cached.json().json(), StandardCharsets.UTF_8)).contains("\"title\":\"Java\"");
+        assertThat(snapshot.status()).isEqualTo(Status.PUBLISHED);
+        assertThat(snapshot.tasks()).extracting(CourseTaskDTO::statement)
+                .containsExactly("Open task", "Single task", "Multiple task");
+        assertThat(snapshot.tasks().get(2).options()).hasSize(3);
+        assertThatThrownBy(() -> snapshot.tasks().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.tasks().get(1).options().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void publishing__should_not_cache_when_the_transaction_rolls_back() {
+        transaction.executeWithoutResult(status -> {
+            Course course = courseRepository.findById(courseId).orElseThrow();
+            course.publish();
+            eventPublisher.publishEvent(new CoursePublishedEvent(courseId, course.getInstructor().getId()));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+
+        assertThat(publishedCourseCache.snapshots().getIfPresent(courseId)).isNull();
+    }
+
+    @Test
+    void warmUp__should_load_published_courses() {
+        transaction.executeWithoutResult(status -> {
+            Course course = courseRepository.findById(courseId).orElseThrow();
+            course.publish();
+        });
+
+        publishedCourseCache.warmUp();
+
+        assertThat(publishedCourseCache.snapshots().getIfPresent(courseId)).isNotNull();
+    }
+
+    private void publish(Long id) {
+        transaction.executeWithoutResult(status -> {
+            Course course = courseRepository.findById(id).orElseThrow();
+            course.publish();
+            eventPublisher.publishEvent(new CoursePublishedEvent(id, course.getInstructor().getId()));
+        });
+        outboxDispatcher.dispatchPending();
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.alura.AluraFake.infra;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolLimiterFilterTest {
+
+    @Test
+    void defaultPermits__should_leave_headroom_in_the_pool_for_background_work() {
+        assertEquals(6, VirtualThreadConfig.defaultPermits(10, 4));
+        assertEquals(1, VirtualThreadConfig.defaultPermits(3, 4));
+    }
+
+    @Test
+    void doFilter__should_keep_headroom_connections_free_while_requests_saturate_the_limiter() throws Exception {
+        int poolSize = 10;
+        int headroom = 4;
+        Semaphore pool = new Semaphore(poolSize);
+        ConnectionPoolLimiterFilter filter = new ConnectionPoolLimiterFilter(VirtualThreadConfig.defaultPermits(poolSize, headroom), Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain connectionHoldingChain = (request, response) -> {
+            pool.acquireUninterruptibly();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.release();
+            }
+        };
+        List<Thread> requests = new ArrayList<>();
+        for (int i = 0; i < 2 * poolSize; i++) {
+            requests.add(Thread.ofVirtual().start(() -> {
+                try {
+                    filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), connectionHoldingChain);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        while (filter.availablePermits() > 0) {
+            Thread.onSpinWait();
+        }
+
+        assertTrue(pool.tryAcquire(headroom, 1, TimeUnit.SECONDS));
+        pool.release(headroom);
+        release.countDown();
+        for (Thread request : requests) {
+            request.join();
+        }
+        assertEquals(poolSize, pool.availablePermits());
+    }
+
+    @Test
+    void doFilter__should_release_the_permit_after_the_request() throws Exception {
+        ConnectionPoolLimiterFilter filter = new ConnectionPoolLimiterFilter(1, Duration.ofMillis(50));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest(), first, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest(), second, new MockFilterChain());
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    void doFilter__should_reject_with_service_unavailable_when_no_permit_frees_up_in_time() throws Exception {
+        ConnectionPoolLimiterFilter filter = new ConnectionPoolLimiterFilter(1, Duration.ofMillis(50));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), blockingChain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(holding.await(1, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        release.countDown();
+        holder.join();
+        assertEquals(1, filter.availablePermits());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.alura.AluraFake.infra;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"alurafake.outbox.poll-interval=PT1H", "alurafake.metrics.hibernate-statistics=true",
+        "alurafake.metrics.scrape-password={noop}scrape-secret"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private DataSeeder dataSeeder;
+
+    @Test
+    void prometheus__should_expose_controller_hibernate_pool_cache_and_domain_metrics() throws Exception {
+        mockMvc.perform(post("/auth")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"nobody@alura.com.br\", \"password\": \"123456\"}"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("alurafake_controller_seconds_bucket{class=\"br.com.alura.AluraFake.security.TokenController\""),
+                        containsString("alurafake_http_sql_statements_count{method=\"POST\",uri=\"/auth\"}"),
+                        containsString("hibernate_query_executions_total"),
+                        containsString("hikaricp_connections_acquire_seconds_bucket"),
+                        containsString("cache_gets_total{cache=\"publishedCourses\""),
+                        containsString("alurafake_task_creations_total{type=\"open_text\"}"),
+                        containsString("alurafake_course_publish_attempts_total{outcome=\"missing_task_types\"}"))));
+    }
+
+    @Test
+    void metrics__should_require_the_scrape_credential() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(jwt()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void scrape_credential__should_not_open_the_api() throws Exception {
+        mockMvc.perform(get("/course/all").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void health__should_stay_open_to_anonymous_callers() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.alura.AluraFake.infra;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+// Opt-in, run once per mode and compare:
+// mvn test -Dtest=RequestExecutionLoadTest -Dbenchmark=true -Dspring.threads.virtual.enabled=false -Dserver.tomcat.threads.max=50
+// mvn test -Dtest=RequestExecutionLoadTest -Dbenchmark=true -Dspring.threads.virtual.enabled=true
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RequestExecutionLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+
+    @LocalServerPort
+    private int port;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    private User instructor;
+    private List<Course> courses;
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAll(courses);
+        userRepository.delete(instructor);
+    }
+
+    @Test
+    void filtering_courses_under_concurrent_load() throws Exception {
+        instructor = userRepository.save(new User("Load", "load-test@alura.com.br", Role.INSTRUCTOR));
+        courses = courseRepository.saveAll(IntStream.range(0, 500).mapToObj(i -> new Course("Course " + i, "Description " + i, instructor)).toList());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:%d/course/filter?instructorId=%d&size=50".formatted(port, instructor.getId())))
+                .header("Authorization", "Bearer " + token(instructor))
+                .build();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - sent;
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s threads, %d clients, %d requests: %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d rejected%n",
+                virtualThreads ? "virtual" : "platform", CLIENTS, REQUESTS, REQUESTS / elapsedSeconds,
+                millis(latencies, 0.50), millis(latencies, 0.99), latencies[REQUESTS - 1] / 1e6, rejected.get());
+        assertThat(latencies[0]).isPositive();
+    }
+
+    private String token(User user) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(user.getId().toString())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("scope", user.getRole().toString())
+                .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    private static double millis(long[] sortedLatencies, double percentile) {
+        return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.alura.AluraFake.infra;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static br.com.alura.AluraFake.infra.SqlStatementCountFilter.STATEMENT_COUNT_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class SqlStatementCountMatchers {
+
+    private SqlStatementCountMatchers() {
+    }
+
+    public static ResultMatcher sqlStatementsAtMost(int max) {
+        return result -> {
+            String statements = result.getResponse().getHeader(STATEMENT_COUNT_HEADER);
+            assertThat(statements).as("%s header, is alurafake.sql-statements.response-header enabled?", STATEMENT_COUNT_HEADER).isNotNull();
+            assertThat(Integer.parseInt(statements))
+                    .as("SQL statements issued by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                    .isLessThanOrEqualTo(max);
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.alura.AluraFake.infra;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void limiter__should_not_be_registered_unless_virtual_threads_are_enabled() {
+        contextRunner.withBean(DataSource.class, HikariDataSource::new)
+                .run(context -> assertThat(context).doesNotHaveBean(ConnectionPoolLimiterFilter.class));
+    }
+
+    @Test
+    void limiter__should_size_permits_from_the_hikari_pool_minus_headroom() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .withBean(DataSource.class, () -> {
+                    HikariDataSource dataSource = new HikariDataSource();
+                    dataSource.setMaximumPoolSize(25);
+                    return dataSource;
+                })
+                .run(context -> assertThat(context.getBean(ConnectionPoolLimiterFilter.class).availablePermits()).isEqualTo(21));
+    }
+
+    @Test
+    void limiter__should_fall_back_to_the_hikari_default_before_the_pool_is_configured() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .withBean(DataSource.class, HikariDataSource::new)
+                .run(context -> assertThat(context.getBean(ConnectionPoolLimiterFilter.class).availablePermits()).isEqualTo(6));
+    }
+
+    @Test
+    void limiter__should_apply_a_configured_headroom() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true", "alurafake.connection-limiter.headroom=2")
+                .withBean(DataSource.class, HikariDataSource::new)
+                .run(context -> assertThat(context.getBean(ConnectionPoolLimiterFilter.class).availablePermits()).isEqualTo(8));
+    }
+
+    @Test
+    void limiter__should_prefer_explicit_permits() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true", "alurafake.connection-limiter.permits=4")
+                .withBean(DataSource.class, HikariDataSource::new)
+                .run(context -> assertThat(context.getBean(ConnectionPoolLimiterFilter.class).availablePermits()).isEqualTo(4));
+    }
+}
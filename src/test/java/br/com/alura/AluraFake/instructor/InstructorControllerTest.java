@@ -0,0 +1,102 @@
+package br.com.alura.AluraFake.instructor;
+
+import br.com.alura.AluraFake.course.CourseCreatedEvent;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.security.SecurityConfig;
+import br.com.alura.AluraFake.task.TaskCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static br.com.alura.AluraFake.course.Status.BUILDING;
+import static br.com.alura.AluraFake.course.Status.PUBLISHED;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import({SecurityConfig.class, InstructorStatsCache.class})
+@WebMvcTest(InstructorController.class)
+class InstructorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private CourseRepository courseRepository;
+    @Autowired
+    private InstructorStatsCache instructorStatsCache;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        instructorStatsCache.stats().invalidateAll();
+    }
+
+    @Test
+    @WithMockUser(username = "7", authorities = "SCOPE_INSTRUCTOR")
+    void myStats__should_aggregate_the_grouped_rows_of_the_authenticated_instructor() throws Exception {
+        doReturn(List.of(
+                new InstructorStatsRowDTO(BUILDING, 2L, 3L, 1L, 0L),
+                new InstructorStatsRowDTO(PUBLISHED, 1L, 1L, 1L, 2L)))
+                .when(courseRepository).findInstructorStats(7L);
+
+        mockMvc.perform(get("/instructor/me/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCourses").value(3))
+                .andExpect(jsonPath("$.coursesByStatus.BUILDING").value(2))
+                .andExpect(jsonPath("$.coursesByStatus.PUBLISHED").value(1))
+                .andExpect(jsonPath("$.totalTasks").value(8))
+                .andExpect(jsonPath("$.tasksByType.OPEN_TEXT").value(4))
+                .andExpect(jsonPath("$.tasksByType.SINGLE_CHOICE").value(2))
+                .andExpect(jsonPath("$.tasksByType.MULTIPLE_CHOICE").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "7", authorities = "SCOPE_INSTRUCTOR")
+    void myStats__should_report_zeros_for_an_instructor_without_courses() throws Exception {
+        doReturn(List.of()).when(courseRepository).findInstructorStats(7L);
+
+        mockMvc.perform(get("/instructor/me/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCourses").value(0))
+                .andExpect(jsonPath("$.coursesByStatus.BUILDING").value(0))
+                .andExpect(jsonPath("$.tasksByType.OPEN_TEXT").value(0));
+    }
+
+    @Test
+    @WithMockUser(username = "7", authorities = "SCOPE_INSTRUCTOR")
+    void myStats__should_be_cached_until_the_instructor_writes() throws Exception {
+        doReturn(List.of(new InstructorStatsRowDTO(BUILDING, 1L, 0L, 0L, 0L))).when(courseRepository).findInstructorStats(7L);
+
+        mockMvc.perform(get("/instructor/me/stats")).andExpect(jsonPath("$.totalCourses").value(1));
+        mockMvc.perform(get("/instructor/me/stats")).andExpect(jsonPath("$.totalCourses").value(1));
+        verify(courseRepository, times(1)).findInstructorStats(7L);
+
+        eventPublisher.publishEvent(new TaskCreatedEvent(42L, 8L));
+        mockMvc.perform(get("/instructor/me/stats")).andExpect(jsonPath("$.totalCourses").value(1));
+        verify(courseRepository, times(1)).findInstructorStats(7L);
+
+        doReturn(List.of(new InstructorStatsRowDTO(BUILDING, 2L, 0L, 0L, 0L))).when(courseRepository).findInstructorStats(7L);
+        eventPublisher.publishEvent(new CourseCreatedEvent(43L, 7L));
+        mockMvc.perform(get("/instructor/me/stats")).andExpect(jsonPath("$.totalCourses").value(2));
+        verify(courseRepository, times(2)).findInstructorStats(7L);
+    }
+
+    @Test
+    @WithMockUser(username = "7", authorities = "SCOPE_STUDENT")
+    void myStats__should_be_forbidden_for_non_instructors() throws Exception {
+        mockMvc.perform(get("/instructor/me/stats"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(courseRepository);
+    }
+}
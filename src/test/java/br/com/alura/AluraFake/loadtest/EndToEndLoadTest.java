@@ -0,0 +1,225 @@
+package br.com.alura.AluraFake.loadtest;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseSearchIndex;
+import br.com.alura.AluraFake.course.CourseTitleAutocomplete;
+import br.com.alura.AluraFake.course.PublishedCourseCache;
+import br.com.alura.AluraFake.security.AuthResponseDTO;
+import br.com.alura.AluraFake.task.Option;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.util.CollectionVersions;
+import br.com.alura.AluraFake.util.VersionedCollection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+// Opt-in, boots the whole app against an in-memory H2 database in MySQL mode and writes
+// target/load-reports/<commit>-<timestamp>.json, so runs can be diffed between commits:
+// mvn test -Dtest=EndToEndLoadTest -Dbenchmark=true -Dloadtest.workloads=CATALOG_BROWSING,AUTHORING_STORM -Dloadtest.clients=50
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=50000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EndToEndLoadTest {
+
+    private static final int INSTRUCTORS = Integer.getInteger("loadtest.instructors", 50);
+    private static final int STUDENTS = Integer.getInteger("loadtest.students", 500);
+    private static final int COURSES = Integer.getInteger("loadtest.courses", 2_000);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 50);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("loadtest.warmup", 2_000);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 20_000);
+    private static final String WORKLOADS = System.getProperty("loadtest.workloads", "CATALOG_BROWSING,AUTHORING_STORM,MIXED");
+    private static final Path REPORT_DIRECTORY = Path.of(System.getProperty("loadtest.report-dir", "target/load-reports"));
+    private static final int AUTHENTICATED_USERS = 50;
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final String PASSWORD = "123456";
+
+    @LocalServerPort
+    private int port;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+    @Autowired
+    private CourseTitleAutocomplete courseTitleAutocomplete;
+    @Autowired
+    private PublishedCourseCache publishedCourseCache;
+    @Autowired
+    private CollectionVersions collectionVersions;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void h2Migrations(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("alurafake-h2-migrations");
+        for (Resource migration : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql")) {
+            String sql = migration.getContentAsString(UTF_8)
+                    .replace("CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci", "")
+                    .replaceAll("\\)\\s*ENGINE=InnoDB[^;]*;", ");")
+                    .replaceAll("SHA2\\((\\w+), 256\\)", "LOWER(RAWTOHEX(HASH('SHA-256', $1)))");
+            Files.writeString(directory.resolve(migration.getFilename()), sql);
+        }
+        registry.add("spring.flyway.locations", () -> "filesystem:" + directory);
+    }
+
+    @Test
+    void mixed_workloads_against_the_embedded_app() throws Exception {
+        List<User> instructors = userRepository.saveAll(users("instructor", Role.INSTRUCTOR, INSTRUCTORS));
+        List<User> students = userRepository.saveAll(users("student", Role.STUDENT, STUDENTS));
+        List<Long> publishedCourseIds = new ArrayList<>();
+        List<Long> buildingCourseIds = new ArrayList<>();
+        seedCourses(instructors, publishedCourseIds, buildingCourseIds);
+
+        List<Workload> workloads = Arrays.stream(WORKLOADS.split(",")).map(String::trim).map(Workload::valueOf).toList();
+        List<LoadReport.WorkloadReport> reports = new ArrayList<>();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            LoadTarget target = new LoadTarget(URI.create("http://localhost:" + port), objectMapper,
+                    authenticate(client, instructors), authenticate(client, students), publishedCourseIds, buildingCourseIds);
+            for (Workload workload : workloads) {
+                drive(client, target, workload, WARMUP_REQUESTS, new LatencyRecorder());
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                drive(client, target, workload, REQUESTS, recorder);
+                reports.add(recorder.report(workload, CLIENTS, System.nanoTime() - start));
+            }
+        }
+
+        LoadReport report = new LoadReport(commit(), LocalDateTime.now().toString(), Runtime.version().toString(),
+                Runtime.getRuntime().availableProcessors(), virtualThreads, INSTRUCTORS, STUDENTS, COURSES, reports);
+        Path file = REPORT_DIRECTORY.resolve("%s-%s.json".formatted(report.commit(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+        Files.createDirectories(REPORT_DIRECTORY);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+
+        reports.forEach(workload -> {
+            System.out.printf("%s: %.0f req/s, %d errors%n", workload.workload(), workload.throughput(), workload.errors());
+            workload.endpoints().forEach(endpoint -> System.out.printf("  %-32s %7d req %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms  %d errors%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.throughput(), endpoint.p50Millis(),
+                    endpoint.p99Millis(), endpoint.p999Millis(), endpoint.errors()));
+        });
+        System.out.println("Report written to " + file.toAbsolutePath());
+        assertThat(reports).hasSize(workloads.size()).allSatisfy(workload -> assertThat(workload.requests()).isEqualTo(REQUESTS));
+    }
+
+    private static List<User> users(String kind, Role role, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new User("Load " + kind + " " + i, "load-%s-seed-%d@alura.com.br".formatted(kind, i), role, PASSWORD))
+                .toList();
+    }
+
+    private void seedCourses(List<User> instructors, List<Long> publishedCourseIds, List<Long> buildingCourseIds) {
+        for (int from = 0; from < COURSES; from += SEED_BATCH_SIZE) {
+            List<Course> batch = IntStream.range(from, Math.min(from + SEED_BATCH_SIZE, COURSES))
+                    .mapToObj(i -> course(i, instructors.get(i % instructors.size())))
+                    .toList();
+            courseRepository.saveAll(batch).forEach(course ->
+                    (course.isPublished() ? publishedCourseIds : buildingCourseIds).add(course.getId()));
+        }
+        courseSearchIndex.rebuild();
+        courseTitleAutocomplete.rebuild();
+        publishedCourseCache.warmUp();
+        collectionVersions.changed(VersionedCollection.COURSES);
+    }
+
+    private static Course course(int i, User instructor) {
+        String topic = LoadTarget.TOPICS.get(i % LoadTarget.TOPICS.size());
+        Course course = new Course("%s fundamentals %d".formatted(topic, i), "Learn %s from scratch, part %d".formatted(topic, i), instructor);
+        course.addOpenTextTask("What did you learn about %s?".formatted(topic), 1);
+        if (i % 2 == 0) {
+            course.addSingleChoiceTask("Which one is %s?".formatted(topic), 2, List.of(new Option(topic, true), new Option("Cobol", false)));
+            course.addMultipleChoiceTask("Which ones relate to %s?".formatted(topic), 3,
+                    List.of(new Option(topic, true), new Option(topic + " docs", true), new Option("Cobol", false)));
+            course.publish();
+        }
+        return course;
+    }
+
+    private List<String> authenticate(HttpClient client, List<User> users) throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>();
+        for (User user : users.subList(0, Math.min(AUTHENTICATED_USERS, users.size()))) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:%d/auth".formatted(port)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("email", user.getEmail(), "password", PASSWORD))))
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(200);
+            tokens.add(objectMapper.readValue(response.body(), AuthResponseDTO.class).accessToken());
+        }
+        return tokens;
+    }
+
+    private static void drive(HttpClient client, LoadTarget target, Workload workload, int requests, LatencyRecorder recorder) {
+        AtomicInteger next = new AtomicInteger();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (next.getAndIncrement() < requests) {
+                        Workload.Operation operation = workload.pick();
+                        HttpRequest request = operation.request().apply(target);
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = 0;
+                        }
+                        recorder.record(operation.endpoint(), System.nanoTime() - sent, status);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "describe", "--always", "--dirty").start();
+            String described = new String(git.getInputStream().readAllBytes(), UTF_8).trim();
+            return git.waitFor() == 0 && !described.isEmpty() ? described : "unknown";
+        } catch (IOException | InterruptedException e) {
+            return "unknown";
+        }
+    }
+}
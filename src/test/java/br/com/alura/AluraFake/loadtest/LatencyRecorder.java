@@ -0,0 +1,67 @@
+package br.com.alura.AluraFake.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long elapsedNanos, int status) {
+        Endpoint recorded = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        recorded.latencies.recordValue(NANOSECONDS.toMicros(elapsedNanos));
+        recorded.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    LoadReport.WorkloadReport report(Workload workload, int clients, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        var reports = endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey(), seconds))
+                .toList();
+        long requests = reports.stream().mapToLong(LoadReport.EndpointReport::requests).sum();
+        long errors = reports.stream().mapToLong(LoadReport.EndpointReport::errors).sum();
+        return new LoadReport.WorkloadReport(workload.name(), clients, requests, errors, seconds, requests / seconds, reports);
+    }
+
+    private static class Endpoint {
+
+        private final Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        LoadReport.EndpointReport report(String name, double seconds) {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            long errors = counts.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            long requests = latencies.getTotalCount();
+            return new LoadReport.EndpointReport(name, requests, errors, counts, requests / seconds,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()), encoded());
+        }
+
+        private String encoded() {
+            ByteBuffer buffer = ByteBuffer.allocate(latencies.getNeededByteBufferCapacity());
+            int length = latencies.encodeIntoCompressedByteBuffer(buffer);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.alura.AluraFake.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+record LoadReport(String commit, String createdAt, String javaVersion, int availableProcessors, boolean virtualThreads,
+                  int instructors, int students, int courses, List<WorkloadReport> workloads) {
+
+    record WorkloadReport(String workload, int clients, long requests, long errors, double durationSeconds,
+                          double throughput, List<EndpointReport> endpoints) {
+    }
+
+    record EndpointReport(String endpoint, long requests, long errors, Map<Integer, Long> statuses, double throughput,
+                          double p50Millis, double p99Millis, double p999Millis, double maxMillis, String histogram) {
+    }
+}
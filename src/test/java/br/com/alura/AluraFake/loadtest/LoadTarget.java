@@ -0,0 +1,135 @@
+package br.com.alura.AluraFake.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LoadTarget {
+
+    static final List<String> TOPICS = List.of("Java", "Spring", "Kotlin", "Python", "React", "Docker", "SQL", "Git");
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final List<String> instructorTokens;
+    private final List<String> studentTokens;
+    private final List<Long> publishedCourseIds;
+    private final List<Long> buildingCourseIds;
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadTarget(URI baseUri, ObjectMapper objectMapper, List<String> instructorTokens, List<String> studentTokens,
+               List<Long> publishedCourseIds, List<Long> buildingCourseIds) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.instructorTokens = instructorTokens;
+        this.studentTokens = studentTokens;
+        this.publishedCourseIds = publishedCourseIds;
+        this.buildingCourseIds = buildingCourseIds;
+    }
+
+    HttpRequest catalogPage() {
+        long after = random().nextBoolean() ? 0 : any(publishedCourseIds);
+        return get("/course/all?after=%d&size=50".formatted(after));
+    }
+
+    HttpRequest publishedCourse() {
+        return get("/course/" + any(publishedCourseIds));
+    }
+
+    HttpRequest filteredCourses() {
+        return get("/course/filter?status=PUBLISHED&page=%d&size=20".formatted(random().nextInt(5)));
+    }
+
+    HttpRequest search() {
+        return get("/course/search?q=" + any(TOPICS).toLowerCase());
+    }
+
+    HttpRequest autocomplete() {
+        return get("/course/autocomplete?prefix=" + any(TOPICS).substring(0, 2));
+    }
+
+    HttpRequest allUsers() {
+        return get("/user/all");
+    }
+
+    HttpRequest newCourse() {
+        return post("/course/new", any(instructorTokens), Map.of(
+                "title", "%s load %d".formatted(any(TOPICS), sequence.incrementAndGet()),
+                "description", "Course created by the load harness"));
+    }
+
+    HttpRequest newOpenTextTask() {
+        return post("/task/new/opentext", any(instructorTokens), Map.of(
+                "courseId", any(buildingCourseIds),
+                "statement", "Open question " + sequence.incrementAndGet(),
+                "order", 1));
+    }
+
+    HttpRequest newSingleChoiceTask() {
+        long id = sequence.incrementAndGet();
+        return post("/task/new/singlechoice", any(instructorTokens), Map.of(
+                "courseId", any(buildingCourseIds),
+                "statement", "Single question " + id,
+                "order", 1,
+                "options", List.of(option("Right answer " + id, true), option("Wrong answer " + id, false))));
+    }
+
+    HttpRequest newMultipleChoiceTask() {
+        long id = sequence.incrementAndGet();
+        return post("/task/new/multiplechoice", any(instructorTokens), Map.of(
+                "courseId", any(buildingCourseIds),
+                "statement", "Multiple question " + id,
+                "order", 1,
+                "options", List.of(option("First right " + id, true), option("Second right " + id, true), option("Wrong answer " + id, false))));
+    }
+
+    HttpRequest newUser() {
+        long id = sequence.incrementAndGet();
+        return post("/user/new", null, Map.of(
+                "name", "Load student " + id,
+                "email", "load-student-%d@alura.com.br".formatted(id),
+                "role", "STUDENT",
+                "password", "123456"));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + any(studentTokens))
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Map<String, Object> option(String text, boolean correct) {
+        return Map.of("option", text, "isCorrect", correct);
+    }
+
+    private static <T> T any(List<T> values) {
+        return values.get(random().nextInt(values.size()));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
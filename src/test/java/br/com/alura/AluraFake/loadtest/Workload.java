@@ -0,0 +1,56 @@
+package br.com.alura.AluraFake.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+enum Workload {
+
+    CATALOG_BROWSING(List.of(
+            new Operation("GET /course/all", 30, LoadTarget::catalogPage),
+            new Operation("GET /course/{id}", 30, LoadTarget::publishedCourse),
+            new Operation("GET /course/filter", 15, LoadTarget::filteredCourses),
+            new Operation("GET /course/search", 10, LoadTarget::search),
+            new Operation("GET /course/autocomplete", 10, LoadTarget::autocomplete),
+            new Operation("GET /user/all", 5, LoadTarget::allUsers))),
+    AUTHORING_STORM(List.of(
+            new Operation("POST /course/new", 10, LoadTarget::newCourse),
+            new Operation("POST /task/new/opentext", 40, LoadTarget::newOpenTextTask),
+            new Operation("POST /task/new/singlechoice", 25, LoadTarget::newSingleChoiceTask),
+            new Operation("POST /task/new/multiplechoice", 20, LoadTarget::newMultipleChoiceTask),
+            new Operation("POST /user/new", 5, LoadTarget::newUser))),
+    MIXED(List.of(
+            new Operation("GET /course/all", 27, LoadTarget::catalogPage),
+            new Operation("GET /course/{id}", 27, LoadTarget::publishedCourse),
+            new Operation("GET /course/filter", 13, LoadTarget::filteredCourses),
+            new Operation("GET /course/search", 9, LoadTarget::search),
+            new Operation("GET /course/autocomplete", 9, LoadTarget::autocomplete),
+            new Operation("GET /user/all", 5, LoadTarget::allUsers),
+            new Operation("POST /course/new", 2, LoadTarget::newCourse),
+            new Operation("POST /task/new/opentext", 4, LoadTarget::newOpenTextTask),
+            new Operation("POST /task/new/singlechoice", 2, LoadTarget::newSingleChoiceTask),
+            new Operation("POST /task/new/multiplechoice", 2, LoadTarget::newMultipleChoiceTask)));
+
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    Workload(List<Operation> operations) {
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking an operation");
+    }
+
+    record Operation(String endpoint, int weight, Function<LoadTarget, HttpRequest> request) {
+    }
+}
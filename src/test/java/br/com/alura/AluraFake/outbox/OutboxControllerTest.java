@@ -0,0 +1,44 @@
+package br.com.alura.AluraFake.outbox;
+
+import br.com.alura.AluraFake.security.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(OutboxController.class)
+class OutboxControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private OutboxDispatcher outboxDispatcher;
+
+    @Test
+    @WithMockUser
+    void lag__should_expose_backlog_and_delivery_lag() throws Exception {
+        doReturn(new OutboxLagDTO(12, 1, 3500, 420)).when(outboxDispatcher).lag();
+
+        mockMvc.perform(get("/outbox/lag"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pending").value(12))
+                .andExpect(jsonPath("$.parked").value(1))
+                .andExpect(jsonPath("$.oldestPendingAgeMillis").value(3500))
+                .andExpect(jsonPath("$.lastDeliveryLagMillis").value(420));
+    }
+
+    @Test
+    void lag__should_require_authentication() throws Exception {
+        mockMvc.perform(get("/outbox/lag"))
+                .andExpect(status().isUnauthorized());
+    }
+}
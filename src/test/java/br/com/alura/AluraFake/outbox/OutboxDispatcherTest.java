@@ -0,0 +1,219 @@
+package br.com.alura.AluraFake.outbox;
+
+import br.com.alura.AluraFake.course.CourseCreatedEvent;
+import br.com.alura.AluraFake.task.TaskCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+@DataJpaTest(properties = {"alurafake.outbox.poll-interval=PT1H", "alurafake.outbox.delivery-concurrency=2",
+        "alurafake.outbox.max-attempts=3", "alurafake.outbox.retry-backoff=PT0S"})
+@ActiveProfiles("test")
+@AutoConfigureJson
+@Import({OutboxWriter.class, OutboxDispatcher.class, OutboxDispatcherTest.RecordingSubscriber.class})
+@Transactional(propagation = NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        subscriber.received.clear();
+        subscriber.failingCourses.clear();
+        subscriber.maxConcurrentDeliveries.set(0);
+        subscriber.deliveryPauseMillis = 0;
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void append__should_write_only_within_the_committed_domain_transaction() {
+        transaction.executeWithoutResult(status -> eventPublisher.publishEvent(new CourseCreatedEvent(1L, 7L)));
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new CourseCreatedEvent(2L, 7L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getOrderingKey()).isEqualTo("course-1");
+            assertThat(event.getType()).isEqualTo(CourseCreatedEvent.class.getName());
+            assertThat(event.getDispatchedAt()).isNull();
+        });
+        assertThatThrownBy(() -> eventPublisher.publishEvent(new CourseCreatedEvent(3L, 7L)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void dispatchPending__should_deliver_each_event_once_in_order_per_course() {
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new CourseCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new CourseCreatedEvent(2L, 7L));
+            eventPublisher.publishEvent(new TaskCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new TaskCreatedEvent(2L, 7L));
+            eventPublisher.publishEvent(new TaskCreatedEvent(1L, 7L));
+        });
+        assertThat(outboxDispatcher.lag().pending()).isEqualTo(5);
+
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(5);
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+
+        assertThat(subscriber.received).hasSize(5);
+        assertThat(subscriber.received.stream().filter(event -> event.orderingKey().equals("course-1")).toList())
+                .containsExactly(new CourseCreatedEvent(1L, 7L), new TaskCreatedEvent(1L, 7L), new TaskCreatedEvent(1L, 7L));
+        assertThat(subscriber.received.stream().filter(event -> event.orderingKey().equals("course-2")).toList())
+                .containsExactly(new CourseCreatedEvent(2L, 7L), new TaskCreatedEvent(2L, 7L));
+        assertThat(outboxRepository.findAll()).allSatisfy(event -> assertThat(event.getDispatchedAt()).isNotNull());
+        assertThat(outboxDispatcher.lag()).satisfies(lag -> {
+            assertThat(lag.pending()).isZero();
+            assertThat(lag.oldestPendingAgeMillis()).isZero();
+        });
+    }
+
+    @Test
+    void dispatchPending__should_hold_back_later_events_of_a_failing_course_and_retry_them() {
+        subscriber.failingCourses.add(1L);
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new CourseCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new TaskCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new CourseCreatedEvent(2L, 7L));
+        });
+
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(subscriber.received).containsExactly(new CourseCreatedEvent(2L, 7L));
+        assertThat(outboxDispatcher.lag().pending()).isEqualTo(2);
+        assertThat(outboxRepository.findAll()).filteredOn(event -> event.getAttempts() > 0).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(CourseCreatedEvent.class.getName());
+            assertThat(event.getLastError()).contains("course 1 is failing");
+        });
+
+        subscriber.failingCourses.clear();
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(2);
+        assertThat(subscriber.received).containsExactly(new CourseCreatedEvent(2L, 7L), new CourseCreatedEvent(1L, 7L), new TaskCreatedEvent(1L, 7L));
+    }
+
+    @Test
+    void dispatchPending__should_hold_back_a_course_while_its_failed_event_waits_for_the_next_attempt() {
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new CourseCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new TaskCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new CourseCreatedEvent(2L, 7L));
+        });
+        Long failed = outboxRepository.findAll().getFirst().getId();
+        transaction.executeWithoutResult(status -> outboxRepository.recordFailedAttempt(failed, "boom", LocalDateTime.now().plusMinutes(1)));
+
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(subscriber.received).containsExactly(new CourseCreatedEvent(2L, 7L));
+        assertThat(outboxDispatcher.lag().pending()).isEqualTo(2);
+    }
+
+    @Test
+    void dispatchPending__should_park_an_event_after_max_attempts_and_release_the_rest_of_its_course() {
+        subscriber.failingCourses.add(1L);
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new CourseCreatedEvent(1L, 7L));
+            eventPublisher.publishEvent(new TaskCreatedEvent(1L, 7L));
+        });
+
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+        assertThat(outboxDispatcher.dispatchPending()).isZero();
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(1);
+
+        assertThat(subscriber.received).containsExactly(new TaskCreatedEvent(1L, 7L));
+        assertThat(outboxRepository.findAll()).filteredOn(event -> event.getParkedAt() != null).singleElement().satisfies(event -> {
+            assertThat(event.getAttempts()).isEqualTo(3);
+            assertThat(event.getDispatchedAt()).isNull();
+            assertThat(event.getLastError()).contains("course 1 is failing");
+        });
+        assertThat(outboxDispatcher.lag()).satisfies(lag -> {
+            assertThat(lag.pending()).isZero();
+            assertThat(lag.parked()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void dispatchPending__should_deliver_at_most_the_configured_number_of_ordering_keys_at_once() {
+        subscriber.deliveryPauseMillis = 20;
+        transaction.executeWithoutResult(status -> LongStream.rangeClosed(1, 8)
+                .forEach(courseId -> eventPublisher.publishEvent(new CourseCreatedEvent(courseId, 7L))));
+
+        assertThat(outboxDispatcher.dispatchPending()).isEqualTo(8);
+        assertThat(subscriber.maxConcurrentDeliveries.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void purgeDispatched__should_keep_pending_and_recently_dispatched_events() {
+        transaction.executeWithoutResult(status -> eventPublisher.publishEvent(new CourseCreatedEvent(1L, 7L)));
+        outboxDispatcher.dispatchPending();
+        transaction.executeWithoutResult(status -> eventPublisher.publishEvent(new CourseCreatedEvent(2L, 7L)));
+
+        assertThat(outboxDispatcher.purgeDispatched()).isZero();
+        assertThat(outboxRepository.count()).isEqualTo(2);
+    }
+
+    static class RecordingSubscriber {
+
+        final List<OutboxMessage> received = new CopyOnWriteArrayList<>();
+        final Set<Long> failingCourses = ConcurrentHashMap.newKeySet();
+        final AtomicInteger concurrentDeliveries = new AtomicInteger();
+        final AtomicInteger maxConcurrentDeliveries = new AtomicInteger();
+        volatile long deliveryPauseMillis;
+
+        @EventListener
+        public void onCourseCreated(OutboxDelivery<CourseCreatedEvent> delivery) throws InterruptedException {
+            maxConcurrentDeliveries.accumulateAndGet(concurrentDeliveries.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(deliveryPauseMillis);
+                if (failingCourses.contains(delivery.event().courseId())) {
+                    throw new IllegalStateException("course " + delivery.event().courseId() + " is failing");
+                }
+                received.add(delivery.event());
+            } finally {
+                concurrentDeliveries.decrementAndGet();
+            }
+        }
+
+        @EventListener
+        public void onTaskCreated(OutboxDelivery<TaskCreatedEvent> delivery) {
+            received.add(delivery.event());
+        }
+    }
+}
@@ -1,23 +1,34 @@
 package br.com.alura.AluraFake.task;
 
-import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringDTO;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseSummaryRepository;
 import br.com.alura.AluraFake.security.SecurityConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static br.com.alura.AluraFake.course.Status.BUILDING;
 import static br.com.alura.AluraFake.course.Status.PUBLISHED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -25,6 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @Import(SecurityConfig.class)
 @WebMvcTest(TaskController.class)
+@RecordApplicationEvents
 class TaskControllerTest {
 
     @Autowired
@@ -33,12 +45,21 @@ class TaskControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     @MockBean
     private CourseRepository courseRepository;
 
     @MockBean
     private TaskRepository taskRepository;
 
+    @MockBean
+    private CourseSummaryRepository courseSummaryRepository;
+
+    @MockBean
+    private TaskMetrics taskMetrics;
+
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newOpenTextExercise__should_return_bad_request_when_courseId_is_null() throws Exception {
@@ -54,7 +75,7 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newOpenTextExercise__should_return_not_found_when_course_does_not_exist() throws Exception {
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.empty());
         OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "statement", 1);
         mockMvc.perform(post("/task/new/opentext")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -65,9 +86,7 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newOpenTextExercise__should_return_bad_request_when_course_status_is_not_building() throws Exception {
-        Course courseMock = mock(Course.class);
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(PUBLISHED);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", PUBLISHED)));
         OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "statement", 1);
         mockMvc.perform(post("/task/new/opentext")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -131,12 +150,9 @@ class TaskControllerTest {
         final Long courseId = 42L;
         final String statement = "Statement";
 
-        Course courseMock = mock(Course.class);
         OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(courseId, statement, 1);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn(statement);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, statement, BUILDING)));
 
         mockMvc.perform(post("/task/new/opentext")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -152,13 +168,43 @@ class TaskControllerTest {
         final Long courseId = 42L;
         final String duplicatedStatement = "Statement duplicado.";
 
-        Course courseMock = mock(Course.class);
         OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(courseId, duplicatedStatement, 1);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(duplicatedStatement)).thenReturn(true);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.existsByCourseIdAndStatementHash(42L, Task.hashStatement(duplicatedStatement))).thenReturn(true);
+
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newOpenTextTaskDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A task with the same statement already exists for this course."));
+        verify(taskMetrics, never()).created(any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newOpenTextExercise__should_return_bad_request_when_statement_hash_constraint_is_violated_concurrently() throws Exception {
+        OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "Statement", 1);
+
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.saveAndFlush(any(OpenTextTask.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Duplicate entry '42-abc' for key 'Task.UK_Task_Course_StatementHash'")));
+
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newOpenTextTaskDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A task with the same statement already exists for this course."));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newOpenTextExercise__should_detect_the_statement_hash_constraint_by_name() throws Exception {
+        OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "Statement", 1);
+
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.saveAndFlush(any(OpenTextTask.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("Violação de chave única"), "Task.uk_task_course_statementhash")));
 
         mockMvc.perform(post("/task/new/opentext")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -167,6 +213,21 @@ class TaskControllerTest {
                 .andExpect(content().string("A task with the same statement already exists for this course."));
     }
 
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newOpenTextExercise__should_rethrow_violations_of_other_constraints() {
+        OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "Statement", 1);
+
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.saveAndFlush(any(OpenTextTask.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("UK_Task_Course_StatementHash was not the cause", new SQLException(), "Task.FK_Task_Course")));
+
+        assertThatThrownBy(() -> mockMvc.perform(post("/task/new/opentext")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOpenTextTaskDTO))))
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newOpenTextExercise__should_return_bad_request_when_order_is_null() throws Exception {
@@ -204,41 +265,82 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newOpenTextExercise__should_return_bad_request_when_order_skips_sequence() throws Exception {
-        Course courseMock = mock(Course.class);
         OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "Statement", 3);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("The order has to be in a insertable position."))
-                .when(courseMock).addOpenTextTask(anyString(), anyInt());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.countByCourseId(42L)).thenReturn(1L);
 
         mockMvc.perform(post("/task/new/opentext")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newOpenTextTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("The order has to be in a insertable position."));
+                .andExpect(content().string("The order has to be in an insertable position."));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newOpenTextExercise__should_create_task_normally_when_all_data_is_valid_and_there_is_no_problem_in_order() throws Exception {
 
-        Course courseMock = mock(Course.class);
         OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "New Task", 1);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        doNothing().when(courseMock).addOpenTextTask(anyString(), anyInt());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/opentext")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newOpenTextTaskDTO)))
                 .andExpect(status().isCreated());
 
-        verify(courseRepository, times(1)).save(any(Course.class));
+        verify(taskRepository, times(1)).saveAndFlush(any(OpenTextTask.class));
+        verify(courseSummaryRepository).recordTasks(42L, 1, 0, 0, TaskRank.of(1));
+        verify(courseSummaryRepository, never()).recordRenormalizedRanks(anyLong(), anyLong());
+        verify(courseRepository).touchUpdatedAt(eq(42L), any());
+        verify(taskMetrics).created(Type.OPEN_TEXT);
+        assertThat(applicationEvents.stream(TaskCreatedEvent.class)).containsExactly(new TaskCreatedEvent(42L, 7L));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newOpenTextExercise__should_rank_between_neighbours_without_loading_the_course_when_order_is_in_use() throws Exception {
+        OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "New Task", 2);
+
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.countByCourseId(42L)).thenReturn(3L);
+        when(taskRepository.findTwoRanksFrom(42L, 0)).thenReturn(List.of(TaskRank.of(1), TaskRank.of(2)));
+
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newOpenTextTaskDTO)))
+                .andExpect(status().isCreated());
+
+        verify(taskRepository, times(1)).saveAndFlush(argThat(task -> task.getRank() == TaskRank.of(1) + TaskRank.GAP / 2));
+        verify(taskRepository, never()).findByCourseIdOrderByRank(anyLong());
+        verify(courseRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newOpenTextExercise__should_renormalize_ranks_when_neighbours_have_no_gap_left() throws Exception {
+        OpenTextTaskDTO newOpenTextTaskDTO = new OpenTextTaskDTO(42L, "New Task", 2);
+        Task first = new OpenTextTask("Task 1", 1, null);
+        Task second = new OpenTextTask("Task 2", 2, null);
+        first.rankAt(7L);
+        second.rankAt(8L);
+
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.countByCourseId(42L)).thenReturn(2L);
+        when(taskRepository.findTwoRanksFrom(42L, 0)).thenReturn(List.of(7L, 8L)).thenReturn(List.of(TaskRank.of(1), TaskRank.of(2)));
+        when(taskRepository.findByCourseIdOrderByRank(42L)).thenReturn(List.of(first, second));
+
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newOpenTextTaskDTO)))
+                .andExpect(status().isCreated());
+
+        assertThat(first.getRank()).isEqualTo(TaskRank.of(1));
+        assertThat(second.getRank()).isEqualTo(TaskRank.of(2));
+        verify(taskRepository, times(1)).saveAndFlush(argThat(task -> task.getRank() == TaskRank.of(1) + TaskRank.GAP / 2));
+        verify(courseSummaryRepository).recordRenormalizedRanks(42L, TaskRank.of(2));
+        verify(courseSummaryRepository).recordTasks(42L, 1, 0, 0, TaskRank.of(1) + TaskRank.GAP / 2);
     }
 
     @Test
@@ -267,7 +369,7 @@ class TaskControllerTest {
                 new OptionDTO("Ruby", false)
         );
         SingleChoiceTaskDTO dto = new SingleChoiceTaskDTO(42L, "statement", 1, optionsDTO);
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.empty());
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -283,9 +385,7 @@ class TaskControllerTest {
                 new OptionDTO("Ruby", false)
         );
         SingleChoiceTaskDTO dto = new SingleChoiceTaskDTO(42L, "statement", 1, optionsDTO);
-        Course courseMock = mock(Course.class);
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(PUBLISHED);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", PUBLISHED)));
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -358,11 +458,8 @@ class TaskControllerTest {
     void newSingleChoiceExercise__should_return_bad_request_when_task_statement_is_duplicated_with_course_title() throws Exception {
         final Long courseId = 42L;
         final String statement = "Statement";
-        Course courseMock = mock(Course.class);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn(statement);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, statement, BUILDING)));
 
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
@@ -382,12 +479,9 @@ class TaskControllerTest {
     void newSingleChoiceExercise__should_return_bad_request_when_statement_is_duplicated_in_same_course() throws Exception {
         final Long courseId = 42L;
         final String duplicatedStatement = "Statement duplicado.";
-        Course courseMock = mock(Course.class);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(duplicatedStatement)).thenReturn(true);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.existsByCourseIdAndStatementHash(42L, Task.hashStatement(duplicatedStatement))).thenReturn(true);
 
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
@@ -439,7 +533,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_order_skips_sequence() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Python", false),
@@ -447,18 +540,14 @@ class TaskControllerTest {
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 3, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("The order has to be in a insertable position."))
-                .when(courseMock).addSingleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.countByCourseId(42L)).thenReturn(1L);
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newSingleTextTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("The order has to be in a insertable position."));
+                .andExpect(content().string("The order has to be in an insertable position."));
     }
 
     @Test
@@ -484,14 +573,12 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_options_are_less_than_two() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true)
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -504,7 +591,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_options_are_more_than_five() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Python", false),
@@ -515,8 +601,7 @@ class TaskControllerTest {
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -557,15 +642,13 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_option_text_is_too_short() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Jav", true),
                 new OptionDTO("Python", false)
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -578,7 +661,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_option_text_is_too_long() throws Exception {
-        Course courseMock = mock(Course.class);
         String longOption = "A".repeat(81);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO(longOption, true),
@@ -586,8 +668,7 @@ class TaskControllerTest {
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -600,7 +681,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_there_is_more_than_one_correct_option() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Python", true),
@@ -608,12 +688,7 @@ class TaskControllerTest {
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("There must be exactly one correct option."))
-                .when(courseMock).addSingleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -625,43 +700,31 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_options_are_duplicated() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Java", false)
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("Options must be unique."))
-                .when(courseMock).addSingleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newSingleTextTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("Options must be unique."));
+                .andExpect(content().string("There must be at least two correct options."));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_return_bad_request_when_option_is_equal_to_statement() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Statement", true),
                 new OptionDTO("Python", false)
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("Options must be different from the statement."))
-                .when(courseMock).addSingleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -673,7 +736,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newSingleChoiceExercise__should_create_task_normally_when_all_data_is_valid_and_there_is_no_problem_in_order() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Python", false),
@@ -683,18 +745,15 @@ class TaskControllerTest {
         );
         SingleChoiceTaskDTO newSingleTextTaskDTO = new SingleChoiceTaskDTO(42L, "New Task", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doNothing().when(courseMock).addSingleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/singlechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newSingleTextTaskDTO)))
                 .andExpect(status().isCreated());
 
-        verify(courseRepository, times(1)).save(any(Course.class));
+        verify(taskRepository, times(1)).saveAndFlush(any(SingleChoiceTask.class));
+        verify(taskMetrics).created(Type.SINGLE_CHOICE);
     }
 
     @Test
@@ -723,7 +782,7 @@ class TaskControllerTest {
                 new OptionDTO("Ruby", false)
         );
         MultipleChoiceTaskDTO dto = new MultipleChoiceTaskDTO(42L, "statement", 1, optionsDTO);
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.empty());
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -739,9 +798,7 @@ class TaskControllerTest {
                 new OptionDTO("Ruby", false)
         );
         MultipleChoiceTaskDTO dto = new MultipleChoiceTaskDTO(42L, "statement", 1, optionsDTO);
-        Course courseMock = mock(Course.class);
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(PUBLISHED);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", PUBLISHED)));
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -814,11 +871,8 @@ class TaskControllerTest {
     void newMultipleChoiceExercise__should_return_bad_request_when_task_statement_is_duplicated_with_course_title() throws Exception {
         final Long courseId = 42L;
         final String statement = "Statement";
-        Course courseMock = mock(Course.class);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn(statement);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, statement, BUILDING)));
 
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
@@ -838,12 +892,9 @@ class TaskControllerTest {
     void newMultipleChoiceExercise__should_return_bad_request_when_statement_is_duplicated_in_same_course() throws Exception {
         final Long courseId = 42L;
         final String duplicatedStatement = "Statement duplicado.";
-        Course courseMock = mock(Course.class);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(duplicatedStatement)).thenReturn(true);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.existsByCourseIdAndStatementHash(42L, Task.hashStatement(duplicatedStatement))).thenReturn(true);
 
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
@@ -895,7 +946,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newMultipleChoiceExercise__should_return_bad_request_when_there_are_no_correct_options() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", false),
                 new OptionDTO("Python", false),
@@ -903,24 +953,18 @@ class TaskControllerTest {
         );
         MultipleChoiceTaskDTO newMultipleChoiceTaskDTO = new MultipleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("There must be at least two correct options and one incorrect option."))
-                .when(courseMock).addMultipleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newMultipleChoiceTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("There must be at least two correct options and one incorrect option."));
+                .andExpect(content().string("There must be at least two correct options."));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newMultipleChoiceExercise__should_return_bad_request_when_there_are_not_enough_correct_options() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Python", false),
@@ -928,24 +972,18 @@ class TaskControllerTest {
         );
         MultipleChoiceTaskDTO newMultipleChoiceTaskDTO = new MultipleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("There must be at least two correct options and one incorrect option."))
-                .when(courseMock).addMultipleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newMultipleChoiceTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("There must be at least two correct options and one incorrect option."));
+                .andExpect(content().string("There must be at least two correct options."));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newMultipleChoiceExercise__should_return_bad_request_when_all_options_are_correct() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Spring", true),
@@ -953,24 +991,18 @@ class TaskControllerTest {
         );
         MultipleChoiceTaskDTO newMultipleChoiceTaskDTO = new MultipleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("There must be at least two correct options and one incorrect option."))
-                .when(courseMock).addMultipleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newMultipleChoiceTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("There must be at least two correct options and one incorrect option."));
+                .andExpect(content().string("There must be at least one incorrect option."));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newMultipleChoiceExercise__should_return_bad_request_when_options_are_duplicated() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Java", false),
@@ -978,24 +1010,18 @@ class TaskControllerTest {
         );
         MultipleChoiceTaskDTO newMultipleChoiceTaskDTO = new MultipleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("Options must be unique."))
-                .when(courseMock).addMultipleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newMultipleChoiceTaskDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string("Options must be unique."));
+                .andExpect(content().string("There must be at least two correct options."));
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newMultipleChoiceExercise__should_return_bad_request_when_option_is_equal_to_statement() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Statement", true),
                 new OptionDTO("Spring", true),
@@ -1003,12 +1029,7 @@ class TaskControllerTest {
         );
         MultipleChoiceTaskDTO newMultipleChoiceTaskDTO = new MultipleChoiceTaskDTO(42L, "Statement", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doThrow(new IllegalArgumentException("Options must be different from the statement."))
-                .when(courseMock).addMultipleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -1020,7 +1041,6 @@ class TaskControllerTest {
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newMultipleChoiceExercise__should_create_task_normally_when_all_data_is_valid() throws Exception {
-        Course courseMock = mock(Course.class);
         List<OptionDTO> optionsDTO = List.of(
                 new OptionDTO("Java", true),
                 new OptionDTO("Spring", true),
@@ -1029,17 +1049,149 @@ class TaskControllerTest {
         );
         MultipleChoiceTaskDTO newMultipleChoiceTaskDTO = new MultipleChoiceTaskDTO(42L, "New Task", 1, optionsDTO);
 
-        when(courseRepository.findById(anyLong())).thenReturn(Optional.of(courseMock));
-        when(courseMock.getStatus()).thenReturn(BUILDING);
-        when(courseMock.getTitle()).thenReturn("Title");
-        when(courseMock.hasAnyTaskWithSameStatement(anyString())).thenReturn(false);
-        doNothing().when(courseMock).addMultipleChoiceTask(anyString(), anyInt(), any());
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
 
         mockMvc.perform(post("/task/new/multiplechoice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newMultipleChoiceTaskDTO)))
                 .andExpect(status().isCreated());
 
-        verify(courseRepository, times(1)).save(any(Course.class));
+        verify(taskRepository, times(1)).saveAndFlush(any(MultipleChoiceTask.class));
+        verify(taskMetrics).created(Type.MULTIPLE_CHOICE);
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_return_bad_request_when_tasks_are_empty() throws Exception {
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of());
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].field").value("tasks"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_return_bad_request_when_an_item_statement_is_blank() throws Exception {
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of(
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Statement", 1, null),
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "", 2, null)));
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[*].field").value(everyItem(equalTo("tasks[1].statement"))));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_return_not_found_when_course_does_not_exist() throws Exception {
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.empty());
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of(new BatchTaskItemDTO(Type.OPEN_TEXT, "Statement", 1, null)));
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_return_bad_request_when_course_status_is_not_building() throws Exception {
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", PUBLISHED)));
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of(new BatchTaskItemDTO(Type.OPEN_TEXT, "Statement", 1, null)));
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Course has to be in building phase to allow tasks registrations."));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_report_every_invalid_item_without_saving() throws Exception {
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.findStatementHashesIn(eq(42L), anyList())).thenReturn(Set.of(Task.hashStatement("Existing")));
+        when(taskRepository.countByCourseId(42L)).thenReturn(1L);
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of(
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Valid task", 1, null),
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Title", 2, null),
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Existing", 3, null),
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Valid task", 4, null),
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Far away", 9, null),
+                new BatchTaskItemDTO(Type.SINGLE_CHOICE, "Which one?", 6, List.of(new OptionDTO("Java", true), new OptionDTO("Python", true))),
+                new BatchTaskItemDTO(Type.MULTIPLE_CHOICE, "Which ones?", 7, List.of(new OptionDTO("Java", true), new OptionDTO("Python", true)))));
+
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.length()").value(6))
+                .andExpect(jsonPath("$[0].field").value("tasks[1].statement"))
+                .andExpect(jsonPath("$[0].message").value("The task's statement is the same as the course title."))
+                .andExpect(jsonPath("$[1].field").value("tasks[2].statement"))
+                .andExpect(jsonPath("$[1].message").value("A task with the same statement already exists for this course."))
+                .andExpect(jsonPath("$[2].field").value("tasks[3].statement"))
+                .andExpect(jsonPath("$[2].message").value("A task with the same statement already exists for this course."))
+                .andExpect(jsonPath("$[3].field").value("tasks[4].order"))
+                .andExpect(jsonPath("$[3].message").value("The order has to be in an insertable position."))
+                .andExpect(jsonPath("$[4].field").value("tasks[5].options"))
+                .andExpect(jsonPath("$[4].message").value("There must be exactly one correct option."))
+                .andExpect(jsonPath("$[5].field").value("tasks[6].options"))
+                .andExpect(jsonPath("$[5].message").value("The activity must have between 3 and 5 options."));
+
+        verify(taskRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_rank_and_save_every_task_at_once() throws Exception {
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.countByCourseId(42L)).thenReturn(2L);
+        when(taskRepository.findRanksByCourseId(42L)).thenReturn(List.of(TaskRank.of(1), TaskRank.of(2)));
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of(
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Open task", 2, null),
+                new BatchTaskItemDTO(Type.SINGLE_CHOICE, "Single task", 4, List.of(new OptionDTO("Java", true), new OptionDTO("Python", false))),
+                new BatchTaskItemDTO(Type.MULTIPLE_CHOICE, "Multiple task", 1, List.of(new OptionDTO("Java", true), new OptionDTO("Python", true), new OptionDTO("Ruby", false)))));
+
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        verify(taskRepository, times(1)).saveAllAndFlush(argThat((List<Task> tasks) -> tasks.size() == 3
+                && tasks.get(0).getRank() == TaskRank.of(1) + TaskRank.GAP / 2
+                && tasks.get(1).getRank() == TaskRank.of(3)
+                && tasks.get(2).getRank() == TaskRank.of(1) / 2));
+        verify(taskRepository, never()).findByCourseIdOrderByRank(anyLong());
+        verify(courseSummaryRepository).recordTasks(42L, 1, 1, 1, TaskRank.of(3));
+        verify(courseRepository).touchUpdatedAt(eq(42L), any());
+        verify(taskMetrics).created(Type.OPEN_TEXT);
+        verify(taskMetrics).created(Type.SINGLE_CHOICE);
+        verify(taskMetrics).created(Type.MULTIPLE_CHOICE);
+        assertThat(applicationEvents.stream(TaskCreatedEvent.class)).containsExactly(new TaskCreatedEvent(42L, 7L));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void newTasksBatch__should_renormalize_persisted_and_new_tasks_when_gap_runs_out() throws Exception {
+        Task persisted = new OpenTextTask("Persisted", 1, null);
+        persisted.rankAt(1L);
+        when(courseRepository.findAuthoringById(anyLong())).thenReturn(Optional.of(new CourseAuthoringDTO(42L, 7L, "Title", BUILDING)));
+        when(taskRepository.countByCourseId(42L)).thenReturn(1L);
+        when(taskRepository.findRanksByCourseId(42L)).thenReturn(List.of(1L));
+        when(taskRepository.findByCourseIdOrderByRank(42L)).thenReturn(List.of(persisted));
+        BatchTaskDTO dto = new BatchTaskDTO(42L, List.of(
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Appended", 2, null),
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "First", 1, null)));
+
+        mockMvc.perform(post("/task/new/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        assertThat(persisted.getRank()).isEqualTo(TaskRank.of(1));
+        verify(taskRepository, times(1)).saveAllAndFlush(argThat((List<Task> tasks) ->
+                tasks.get(0).getRank() == TaskRank.of(2) && tasks.get(1).getRank() == TaskRank.of(1) / 2));
     }
-}
\ No newline at end of file
+}
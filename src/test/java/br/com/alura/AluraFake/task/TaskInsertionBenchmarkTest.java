@@ -0,0 +1,94 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseSummaryRepository;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Opt-in: mvn test -Dtest=TaskInsertionBenchmarkTest -Dbenchmark=true [-Dbenchmark.inserts=50]
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskInsertionBenchmarkTest {
+
+    private static final int INSERTS = Integer.getInteger("benchmark.inserts", 50);
+    private static final int[] COURSE_SIZES = {100, 1_000, 10_000};
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CourseSummaryRepository courseSummaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void inserting_at_the_front_should_write_far_fewer_rows_than_shifting_dense_orders() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        TaskController taskController = new TaskController(courseRepository, taskRepository, courseSummaryRepository, event -> {},
+                new TaskMetrics(new SimpleMeterRegistry()));
+
+        for (int size : COURSE_SIZES) {
+            Course sparse = courseRepository.save(new Course("Sparse " + size, "Sparse ranks", paulo));
+            Course dense = courseRepository.save(new Course("Dense " + size, "Dense orders", paulo));
+            seedTasks(sparse, size);
+            seedTasks(dense, size);
+            entityManager.flush();
+            entityManager.clear();
+
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < INSERTS; i++) {
+                taskController.newOpenTextExercise(new OpenTextTaskDTO(sparse.getId(), "New sparse task " + i, 1));
+                entityManager.flush();
+                entityManager.clear();
+            }
+            long sparseMicros = (System.nanoTime() - start) / 1_000 / INSERTS;
+            long sparseRowsWritten = statistics.getEntityInsertCount() + statistics.getEntityUpdateCount();
+
+            long denseRowsWritten = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < INSERTS; i++) {
+                denseRowsWritten += jdbcTemplate.update("UPDATE Task SET task_rank = task_rank + 1 WHERE course_id = ? AND task_rank >= 1", dense.getId());
+                Task task = new OpenTextTask("New dense task " + i, 1, courseRepository.getReferenceById(dense.getId()));
+                task.rankAt(1);
+                taskRepository.saveAndFlush(task);
+                denseRowsWritten++;
+            }
+            long denseMicros = (System.nanoTime() - start) / 1_000 / INSERTS;
+
+            System.out.printf("course with %d tasks, %d front inserts%n  sparse ranks: %d rows written, %d us/insert%n  dense shift:  %d rows written, %d us/insert%n",
+                    size, INSERTS, sparseRowsWritten, sparseMicros, denseRowsWritten, denseMicros);
+            assertThat(sparseRowsWritten).isLessThan(denseRowsWritten);
+        }
+    }
+
+    private void seedTasks(Course course, int size) {
+        taskRepository.saveAll(IntStream.rangeClosed(1, size).mapToObj(i -> (Task) new OpenTextTask("Task " + i, i, course)).toList());
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.infra.DataSeeder;
+import br.com.alura.AluraFake.outbox.OutboxRepository;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static br.com.alura.AluraFake.infra.SqlStatementCountMatchers.sqlStatementsAtMost;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"alurafake.sql-statements.response-header=true", "alurafake.outbox.poll-interval=PT1H"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskQueryBudgetTest {
+
+    // Tasks and options each take their ids from a block that may run out during the request: one insert, one delete.
+    private static final int ID_BLOCK_ALLOCATION = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @MockBean
+    private DataSeeder dataSeeder;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = userRepository.save(new User("Budget", "task-budget@alura.com.br", Role.INSTRUCTOR));
+        Course java = new Course("Java", "Curso de java", instructor);
+        java.addOpenTextTask("First task", 1);
+        java.addOpenTextTask("Second task", 2);
+        course = courseRepository.save(java);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void newOpenTextExercise__should_stay_within_its_query_budget_when_inserting_before_existing_tasks() throws Exception {
+        perform("/task/new/opentext", new OpenTextTaskDTO(course.getId(), "New task", 1), 9 + ID_BLOCK_ALLOCATION);
+    }
+
+    @Test
+    void newSingleChoiceExercise__should_stay_within_its_query_budget() throws Exception {
+        perform("/task/new/singlechoice", new SingleChoiceTaskDTO(course.getId(), "New task", 3,
+                List.of(new OptionDTO("Java", true), new OptionDTO("Python", false))), 10 + 2 * ID_BLOCK_ALLOCATION);
+    }
+
+    @Test
+    void newMultipleChoiceExercise__should_stay_within_its_query_budget() throws Exception {
+        perform("/task/new/multiplechoice", new MultipleChoiceTaskDTO(course.getId(), "New task", 3,
+                List.of(new OptionDTO("Java", true), new OptionDTO("Kotlin", true), new OptionDTO("Python", false))), 10 + 2 * ID_BLOCK_ALLOCATION);
+    }
+
+    @Test
+    void newTasksBatch__should_stay_within_its_query_budget() throws Exception {
+        perform("/task/new/batch", new BatchTaskDTO(course.getId(), List.of(
+                new BatchTaskItemDTO(Type.OPEN_TEXT, "Batch open", 3, null),
+                new BatchTaskItemDTO(Type.SINGLE_CHOICE, "Batch single", 4, List.of(new OptionDTO("Java", true), new OptionDTO("Python", false))),
+                new BatchTaskItemDTO(Type.MULTIPLE_CHOICE, "Batch multiple", 5,
+                        List.of(new OptionDTO("Java", true), new OptionDTO("Kotlin", true), new OptionDTO("Python", false))))), 12 + 2 * ID_BLOCK_ALLOCATION);
+    }
+
+    private void perform(String path, Object body, int budget) throws Exception {
+        mockMvc.perform(post(path)
+                        .with(instructor())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andExpect(sqlStatementsAtMost(budget));
+    }
+
+    private static RequestPostProcessor instructor() {
+        return jwt().authorities(new SimpleGrantedAuthority("SCOPE_INSTRUCTOR"));
+    }
+}
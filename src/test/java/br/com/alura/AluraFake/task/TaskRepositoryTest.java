@@ -0,0 +1,141 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java", "Curso de java", paulo));
+    }
+
+    @Test
+    void countByCourseId__should_return_zero_when_course_has_no_tasks() {
+        assertThat(taskRepository.countByCourseId(course.getId())).isZero();
+    }
+
+    @Test
+    void existsByCourseIdAndStatementHash__should_only_match_the_exact_statement_of_the_same_course() {
+        taskRepository.save(new OpenTextTask("Task 1", 1, course));
+
+        assertThat(taskRepository.existsByCourseIdAndStatementHash(course.getId(), Task.hashStatement("Task 1"))).isTrue();
+        assertThat(taskRepository.existsByCourseIdAndStatementHash(course.getId(), Task.hashStatement("task 1"))).isFalse();
+        assertThat(taskRepository.existsByCourseIdAndStatementHash(course.getId(), Task.hashStatement("Task 2"))).isFalse();
+        assertThat(taskRepository.existsByCourseIdAndStatementHash(course.getId() + 1, Task.hashStatement("Task 1"))).isFalse();
+    }
+
+    @Test
+    void saveAndFlush__should_reject_duplicated_statement_in_the_same_course() {
+        taskRepository.saveAndFlush(new OpenTextTask("Task 1", 1, course));
+
+        assertThatThrownBy(() -> taskRepository.saveAndFlush(new OpenTextTask("Task 1", 2, course)))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, e ->
+                        assertThat(e.getMostSpecificCause().getMessage()).containsIgnoringCase("UK_Task_Course_StatementHash"));
+    }
+
+    @Test
+    void findTwoRanksFrom__should_return_neighbour_ranks_in_rank_order() {
+        Task third = new OpenTextTask("Task 3", 3, course);
+        Task first = new OpenTextTask("Task 1", 1, course);
+        Task second = new OpenTextTask("Task 2", 2, course);
+        taskRepository.saveAll(List.of(third, first, second));
+
+        assertThat(taskRepository.findTwoRanksFrom(course.getId(), 0)).containsExactly(TaskRank.of(1), TaskRank.of(2));
+        assertThat(taskRepository.findTwoRanksFrom(course.getId(), 2)).containsExactly(TaskRank.of(3));
+    }
+
+    @Test
+    void inserting_between_ranks_should_only_write_the_new_task() {
+        taskRepository.save(new OpenTextTask("Task 1", 1, course));
+        taskRepository.save(new OpenTextTask("Task 2", 2, course));
+        taskRepository.save(new OpenTextTask("Task 3", 3, course));
+        entityManager.flush();
+
+        Task newTask = new OpenTextTask("New Task", 2, course);
+        newTask.rankAt(TaskRank.between(TaskRank.of(1), TaskRank.of(2)).getAsLong());
+        taskRepository.save(newTask);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(taskRepository.countByCourseId(course.getId())).isEqualTo(4);
+        List<String> statements = taskRepository.findByCourseIdOrderByRank(course.getId()).stream()
+                .map(Task::getStatement)
+                .toList();
+        assertThat(statements).containsExactly("Task 1", "New Task", "Task 2", "Task 3");
+    }
+
+    @Test
+    void findStatementHashesIn__should_return_only_hashes_already_used_in_the_course() {
+        taskRepository.save(new OpenTextTask("Task 1", 1, course));
+        taskRepository.save(new OpenTextTask("Task 2", 2, course));
+
+        assertThat(taskRepository.findStatementHashesIn(course.getId(), List.of(Task.hashStatement("Task 2"), Task.hashStatement("Task 3"))))
+                .containsExactly(Task.hashStatement("Task 2"));
+    }
+
+    @Test
+    void findRanksByCourseId__should_return_every_rank_in_order() {
+        taskRepository.saveAll(List.of(new OpenTextTask("Task 2", 2, course), new OpenTextTask("Task 1", 1, course)));
+
+        assertThat(taskRepository.findRanksByCourseId(course.getId())).containsExactly(TaskRank.of(1), TaskRank.of(2));
+    }
+
+    @Test
+    void saveAllAndFlush__should_batch_task_and_option_inserts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Task> tasks = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> (Task) new MultipleChoiceTask("Task " + i, i, List.of(
+                        new Option("Option A", true),
+                        new Option("Option B", true),
+                        new Option("Option C", false),
+                        new Option("Option D", false),
+                        new Option("Option E", false)), course))
+                .toList();
+        entityManager.flush();
+        statistics.clear();
+
+        taskRepository.saveAllAndFlush(tasks);
+
+        long batchedInserts = 2;
+        long idBlockAllocations = 2;
+        long statementsPerAllocation = 2;
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(batchedInserts + idBlockAllocations * statementsPerAllocation);
+        assertThat(((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM IdBlock").getSingleResult()).longValue()).isZero();
+    }
+}
@@ -1,28 +1,37 @@
 package br.com.alura.AluraFake.user;
 
 import br.com.alura.AluraFake.security.SecurityConfig;
+import br.com.alura.AluraFake.util.CollectionVersions;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 
-import static org.mockito.Mockito.when;
+import static br.com.alura.AluraFake.util.VersionedCollection.USERS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @Import(SecurityConfig.class)
 @WebMvcTest(UserController.class)
+@RecordApplicationEvents
 class UserControllerTest {
 
+    private static final long LAST_MODIFIED = 1_735_725_600_000L;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -32,6 +41,17 @@ class UserControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    void setUp() {
+        when(collectionVersions.current(USERS)).thenReturn(new CollectionVersions.Version(1, LAST_MODIFIED));
+    }
+
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void newUser__should_return_bad_request_when_email_is_blank() throws Exception {
@@ -96,14 +116,15 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newUserDTO)))
                 .andExpect(status().isCreated());
+        assertThat(applicationEvents.stream(UserCreatedEvent.class)).hasSize(1);
     }
 
     @Test
     @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
     void listAllUsers__should_list_all_users() throws Exception {
-        User user1 = new User("User 1", "user1@test.com",Role.STUDENT);
-        User user2 = new User("User 2", "user2@test.com",Role.STUDENT);
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+        UserListItemDTO user1 = new UserListItemDTO("User 1", "user1@test.com", Role.STUDENT);
+        UserListItemDTO user2 = new UserListItemDTO("User 2", "user2@test.com", Role.STUDENT);
+        when(userRepository.findAllListItems()).thenReturn(Arrays.asList(user1, user2));
 
         mockMvc.perform(get("/user/all")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -112,4 +133,23 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].name").value("User 2"));
     }
 
-}
\ No newline at end of file
+    @Test
+    @WithMockUser(authorities = "SCOPE_INSTRUCTOR")
+    void listAllUsers__should_return_not_modified_without_querying_until_users_change() throws Exception {
+        when(userRepository.findAllListItems()).thenReturn(Arrays.asList(new UserListItemDTO("User 1", "user1@test.com", Role.STUDENT)));
+        String eTag = mockMvc.perform(get("/user/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(userRepository);
+
+        mockMvc.perform(get("/user/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(userRepository);
+
+        when(collectionVersions.current(USERS)).thenReturn(new CollectionVersions.Version(2, LAST_MODIFIED));
+        mockMvc.perform(get("/user/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("User 1"));
+    }
+
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -38,4 +39,17 @@ class UserRepositoryTest {
         assertThat(userRepository.existsByEmail("sergio@alura.com.br")).isFalse();
     }
 
+    @Test
+    void findAllListItems__should_return_only_listed_columns() {
+        userRepository.save(new User("Caio", "caio@alura.com.br", Role.STUDENT));
+        userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+
+        List<UserListItemDTO> users = userRepository.findAllListItems();
+
+        assertThat(users.size()).isEqualTo(2);
+        assertThat(users.get(0).getName()).isEqualTo("Caio");
+        assertThat(users.get(1).getEmail()).isEqualTo("paulo@alura.com.br");
+        assertThat(users.get(1).getRole()).isEqualTo(Role.INSTRUCTOR);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package br.com.alura.AluraFake.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static br.com.alura.AluraFake.util.VersionedCollection.COURSES;
+import static br.com.alura.AluraFake.util.VersionedCollection.USERS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CollectionVersions.class)
+class CollectionVersionsTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.parse("2025-01-01T10:00:00.750Z"), ZoneOffset.UTC);
+
+    @Autowired
+    private CollectionVersionRepository collectionVersionRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CollectionVersions collectionVersions;
+
+    @BeforeEach
+    void setUp() {
+        collectionVersions = new CollectionVersions(collectionVersionRepository, NOW);
+    }
+
+    @Test
+    void changed__should_bump_only_the_changed_collection() {
+        CollectionVersions.Version courses = collectionVersions.current(COURSES);
+        CollectionVersions.Version users = collectionVersions.current(USERS);
+
+        collectionVersions.changed(COURSES);
+
+        assertEquals(courses.counter() + 1, collectionVersions.current(COURSES).counter());
+        assertNotEquals(courses.eTag(null), collectionVersions.current(COURSES).eTag(null));
+        assertEquals(users, collectionVersions.current(USERS));
+    }
+
+    @Test
+    void changed__should_be_visible_to_every_instance_sharing_the_database() {
+        CollectionVersions otherInstance = new CollectionVersions(collectionVersionRepository, NOW);
+        CollectionVersions.Version before = otherInstance.current(COURSES);
+
+        collectionVersions.changed(COURSES);
+
+        assertNotEquals(before.eTag(null), otherInstance.current(COURSES).eTag(null));
+    }
+
+    @Test
+    void changed__should_never_move_last_modified_past_the_current_second() {
+        collectionVersions.changed(COURSES);
+        collectionVersions.changed(COURSES);
+
+        assertEquals(Instant.parse("2025-01-01T10:00:00Z").toEpochMilli(), collectionVersions.current(COURSES).lastModified());
+    }
+
+    @Test
+    @Transactional(propagation = NOT_SUPPORTED)
+    void onCollectionChanged__should_bump_once_per_collection_and_only_when_the_write_commits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long before = collectionVersions.current(COURSES).counter();
+
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent((CollectionChangedEvent) () -> COURSES);
+            eventPublisher.publishEvent((CollectionChangedEvent) () -> COURSES);
+        });
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent((CollectionChangedEvent) () -> COURSES);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before + 1, collectionVersions.current(COURSES).counter());
+    }
+
+    @Test
+    void eTag__should_be_strong_and_differ_per_content_encoding() {
+        CollectionVersions.Version version = collectionVersions.current(COURSES);
+
+        assertTrue(version.eTag(null).startsWith("\""));
+        assertNotEquals(version.eTag(null), version.eTag("gzip, deflate"));
+        assertEquals(version.eTag(null), version.eTag("gzip;q=0"));
+    }
+}
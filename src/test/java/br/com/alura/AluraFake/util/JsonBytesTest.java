@@ -0,0 +1,54 @@
+package br.com.alura.AluraFake.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBytesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of__should_not_gzip_small_payloads() {
+        JsonBytes json = JsonBytes.of(objectMapper, Map.of("title", "Java"));
+
+        assertEquals("{\"title\":\"Java\"}", new String(json.json()));
+        assertNull(json.gzipped());
+        ResponseEntity<byte[]> response = json.toResponse("gzip");
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(json.json(), response.getBody());
+    }
+
+    @Test
+    void toResponse__should_return_gzipped_bytes_only_when_client_accepts_gzip() {
+        JsonBytes json = JsonBytes.of(objectMapper, List.of("x".repeat(4096)));
+
+        assertNotNull(json.gzipped());
+        assertTrue(json.gzipped().length < json.json().length);
+        assertSame(json.gzipped(), json.toResponse("gzip, br").getBody());
+        assertEquals("gzip", json.toResponse("gzip").getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(json.json(), json.toResponse(null).getBody());
+        assertSame(json.json(), json.toResponse("identity").getBody());
+    }
+
+    @Test
+    void acceptsGzip__should_honour_codings_and_quality_values() {
+        assertTrue(JsonBytes.acceptsGzip("gzip"));
+        assertTrue(JsonBytes.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(JsonBytes.acceptsGzip("x-gzip"));
+        assertTrue(JsonBytes.acceptsGzip("br, *"));
+        assertFalse(JsonBytes.acceptsGzip("gzip;q=0"));
+        assertFalse(JsonBytes.acceptsGzip("gzip; q=0.000"));
+        assertFalse(JsonBytes.acceptsGzip("identity, x-gzip;q=0"));
+        assertFalse(JsonBytes.acceptsGzip("*, gzip;q=0"));
+        assertFalse(JsonBytes.acceptsGzip("*;q=0"));
+        assertFalse(JsonBytes.acceptsGzip("gzipped, notgzip"));
+        assertFalse(JsonBytes.acceptsGzip(null));
+    }
+}
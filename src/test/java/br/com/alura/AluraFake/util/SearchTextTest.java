@@ -0,0 +1,24 @@
+package br.com.alura.AluraFake.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchTextTest {
+
+    @Test
+    void fold__should_remove_portuguese_accents_and_lower_case() {
+        assertEquals("introducao a programacao orientada a objetos", SearchText.fold("Introdução à Programação Orientada a Objetos"));
+        assertEquals("acao, avo e pe", SearchText.fold("Ação, Avô e Pé"));
+        assertEquals("", SearchText.fold(null));
+    }
+
+    @Test
+    void tokenize__should_split_on_punctuation_and_drop_stopwords() {
+        assertEquals(List.of("introducao", "java", "17", "spring"), SearchText.tokenize("Introdução ao Java 17: com Spring!"));
+        assertEquals(List.of(), SearchText.tokenize("  de a para "));
+        assertEquals(List.of(), SearchText.tokenize(null));
+    }
+}